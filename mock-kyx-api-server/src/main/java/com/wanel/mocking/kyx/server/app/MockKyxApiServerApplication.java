@@ -3,9 +3,11 @@ package com.wanel.mocking.kyx.server.app;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan("com.wanel.mocking.kyx.server")
+@EnableScheduling
 public class MockKyxApiServerApplication {
 
     public static void main(String[] args) {
@@ -4,9 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +34,38 @@ public class AppConfig {
     
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+    
+    /**
+     * Smile for clients sending Accept / Content-Type: application/x-jackson-smile.
+     * Replaces Spring's default Smile converter in place, so JSON stays the default format.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(configure(new ObjectMapper(new SmileFactory())));
+    }
+    
+    /**
+     * CBOR for clients sending Accept / Content-Type: application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(configure(new ObjectMapper(new CBORFactory())));
+    }
+    
+    /**
+     * Pre-encoded JSON for the constant and near-constant responses, ahead of the Jackson converter
+     */
+    @Bean
+    public ResponseTemplateHttpMessageConverter responseTemplateHttpMessageConverter(ObjectMapper objectMapper) throws IOException {
+        return new ResponseTemplateHttpMessageConverter(objectMapper);
+    }
+    
+    /**
+     * Settings shared by the JSON, Smile and CBOR mappers, and the lean server's mapper
+     */
+    public static ObjectMapper configure(ObjectMapper objectMapper) {
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return objectMapper;
     }
@@ -0,0 +1,142 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.wanel.mocking.kyx.server.apis.KyxProviderApi;
+import com.wanel.mocking.kyx.server.core.fault.Fault;
+import com.wanel.mocking.kyx.server.core.service.FaultInjectionService;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers the requests picked by the fault rules in place of the provider controllers.
+ * Stalled requests are released by the timer wheel rather than a sleeping thread, and
+ * connections are reset by a Tomcat valve once the request has left the servlet.
+ */
+@Component
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "kyx.faults.enabled", havingValue = "true", matchIfMissing = true)
+public class FaultInjectionInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    /** Request attribute asking ResetValve to drop the connection */
+    static final String RESET_ATTRIBUTE = FaultInjectionInterceptor.class.getName() + ".reset";
+
+    private final FaultInjectionService faultInjectionService;
+    private final TimerService timerService;
+
+    @Autowired
+    public FaultInjectionInterceptor(FaultInjectionService faultInjectionService, TimerService timerService) {
+        this.faultInjectionService = faultInjectionService;
+        this.timerService = timerService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod handlerMethod)
+                || !(handlerMethod.getBean() instanceof KyxProviderApi)) {
+            return true;
+        }
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Fault fault = faultInjectionService.decide(
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                variables != null ? variables.get("userId") : null);
+        if (fault == null) {
+            return true;
+        }
+        log.debug("Injecting {} fault in {}", fault.type(), request.getRequestURI());
+        switch (fault.type()) {
+            case RESET -> request.setAttribute(RESET_ATTRIBUTE, Boolean.TRUE);
+            case STALL -> {
+                AsyncContext asyncContext = request.startAsync();
+                asyncContext.setTimeout(0);
+                timerService.schedule(() -> asyncContext.start(() -> {
+                    try {
+                        write((HttpServletResponse) asyncContext.getResponse(), fault);
+                    } catch (IOException e) {
+                        log.debug("Client left during an injected stall: {}", e.getMessage());
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }), fault.stallMs());
+            }
+            case TRUNCATED -> {
+                // The connection closes after the partial body, so the client sees it end early
+                response.setHeader(HttpHeaders.CONNECTION, "close");
+                write(response, fault);
+            }
+            default -> write(response, fault);
+        }
+        return false;
+    }
+
+    private static void write(HttpServletResponse response, Fault fault) throws IOException {
+        response.setStatus(fault.status());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(fault.contentLength());
+        response.getOutputStream().write(fault.body());
+        response.flushBuffer();
+    }
+
+    /**
+     * Closes the connection of requests marked for a reset, before Tomcat writes any response
+     */
+    static class ResetValve extends ValveBase {
+
+        ResetValve() {
+            super(true);
+        }
+
+        @Override
+        public void invoke(Request request, Response response) throws IOException, ServletException {
+            getNext().invoke(request, response);
+            if (request.getAttribute(RESET_ATTRIBUTE) != null) {
+                response.getCoyoteResponse().action(ActionCode.CLOSE_NOW, null);
+            }
+        }
+    }
+
+    @Configuration
+    static class ResetValveConfig {
+
+        @Bean
+        public static WebServerFactoryCustomizer<TomcatServletWebServerFactory> faultResetValveCustomizer() {
+            return factory -> factory.addContextValves(new ResetValve());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * With server.http2.enabled, Spring Boot adds HTTP/2 to the Tomcat connector: h2 over TLS
+ * when server.ssl is configured, otherwise h2c (prior knowledge or Upgrade) next to HTTP/1.1.
+ * This applies the kyx.http2 stream-concurrency and flow-control settings to it.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Config {
+
+    @Bean
+    public TomcatConnectorCustomizer http2ConnectorCustomizer(KyxConfiguration kyxConfiguration) {
+        KyxConfiguration.Http2 config = kyxConfiguration.getHttp2();
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(config.getMaxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(config.getMaxConcurrentStreamExecution());
+                    http2.setInitialWindowSize(config.getInitialWindowSize());
+                    http2.setKeepAliveTimeout(config.getKeepAliveTimeoutMs());
+                    log.info("HTTP/2 enabled with {} max concurrent streams, {} executing, {} byte stream window",
+                            config.getMaxConcurrentStreams(), config.getMaxConcurrentStreamExecution(),
+                            config.getInitialWindowSize());
+                }
+            }
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.wanel.mocking.kyx.server.app.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +17,18 @@ public class KyxConfiguration {
 
     private Python python;
     private List<Provider> providers;
+    private Simulation simulation = new Simulation();
+    private Replication replication = new Replication();
+    private Snapshot snapshot = new Snapshot();
+    private UserQuota userQuota = new UserQuota();
+    private Webhook webhook = new Webhook();
+    private BulkImport bulkImport = new BulkImport();
+    private Uds uds = new Uds();
+    private Http2 http2 = new Http2();
+    private Reactive reactive = new Reactive();
+    private AccessLog accessLog = new AccessLog();
+    private RateLimit rateLimit = new RateLimit();
+    private Faults faults = new Faults();
 
     @Data
     public static class Python {
@@ -26,4 +41,333 @@ public class KyxConfiguration {
         private String name;
         private boolean enabled;
     }
-} 
\ No newline at end of file
+
+    @Data
+    public static class Simulation {
+        /**
+         * Seed for the simulated delays; leave empty for non-reproducible runs
+         */
+        private Long seed;
+
+        /**
+         * Upper bound of every drawn delay, so that heavy-tailed profiles can't overflow timestamps;
+         * defaults to the registration expiration time
+         */
+        private long maxDelayMs = 3_600_000;
+
+        /**
+         * Readiness delay profiles keyed by endpoint ("kya", "kyt"), "default" is the fallback
+         */
+        private Map<String, LatencyProfile> readiness = new HashMap<>();
+
+        /**
+         * Response delays of the provider routes keyed by route pattern, e.g. "[/address/{address}]";
+         * "default" applies to routes without their own, and routes without any are answered at once
+         */
+        private Map<String, LatencyProfile> response = new HashMap<>();
+    }
+
+    @Data
+    public static class LatencyProfile {
+        /**
+         * One of: fixed, uniform, log-normal, histogram
+         */
+        private String type = "uniform";
+
+        // fixed
+        private long fixedMs;
+
+        // uniform, drawn in steps of stepMs between minMs and maxMs (inclusive)
+        private long minMs = 0;
+        private long maxMs = 10000;
+        private long stepMs = 1000;
+
+        // log-normal, parameters of the underlying normal distribution of ln(ms)
+        private double mu = 7.0;
+        private double sigma = 0.5;
+
+        // histogram, upper bounds of each bucket and their observed counts
+        private List<Long> bucketUpperMs;
+        private List<Long> bucketCounts;
+    }
+
+    @Data
+    public static class Replication {
+        private boolean enabled;
+
+        /**
+         * Base url of this instance as seen by its peers, e.g. http://localhost:8081
+         */
+        private String self;
+
+        /**
+         * Base urls of all instances of the cluster, including this one
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * Max number of changes sent to a peer in one request
+         */
+        private int batchSize = 500;
+
+        /**
+         * Max time a change waits before its batch is sent
+         */
+        private long lingerMs = 50;
+
+        /**
+         * Timeout of a read forwarded to the owning instance
+         */
+        private long forwardTimeoutMs = 500;
+
+        /**
+         * Time during which an externalId its owner answered it doesn't have is not forwarded again,
+         * 0 to always forward
+         */
+        private long negativeCacheMs = 5000;
+
+        /**
+         * Max number of externalIds remembered as missing; the memory is cleared once reached
+         */
+        private int negativeCacheMaxEntries = 100000;
+    }
+
+    @Data
+    public static class Snapshot {
+        private boolean enabled;
+
+        /**
+         * File the registration store is snapshotted to and restored from
+         */
+        private String path = "snapshots/registrations.snap";
+
+        /**
+         * Time between two background snapshots
+         */
+        private long intervalMs = 60000;
+    }
+
+    @Data
+    public static class UserQuota {
+        /**
+         * Max registrations a single userId may hold at once, 0 for unlimited
+         */
+        private long maxRegistrations;
+    }
+
+    @Data
+    public static class Webhook {
+        /**
+         * A batch is sent as soon as it holds this many alerts...
+         */
+        private int batchSize = 100;
+
+        /**
+         * ...or when its first alert has waited this long
+         */
+        private long lingerMs = 200;
+
+        /**
+         * Delays before each retry of a failed batch, the batch is dropped once they are used up
+         */
+        private List<Long> retryBackoffMs = new ArrayList<>(List.of(1000L, 2000L, 5000L, 10000L, 30000L));
+
+        private long requestTimeoutMs = 5000;
+
+        /**
+         * Max alerts waiting for one destination, the oldest are dropped beyond it
+         */
+        private int maxPending = 10000;
+    }
+
+    @Data
+    public static class BulkImport {
+        /**
+         * Records evaluated and stored together
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Batches evaluated at the same time, 0 for one per CPU core
+         */
+        private int parallelism = 0;
+    }
+
+    @Data
+    public static class Uds {
+        private boolean enabled;
+
+        /**
+         * Unix domain socket file the listener binds, replaced if it already exists
+         */
+        private String path = "/tmp/mock-kyx.sock";
+    }
+
+    /**
+     * Tuning of the HTTP/2 protocol, used once server.http2.enabled is set
+     */
+    @Data
+    public static class Http2 {
+        /**
+         * Streams a client may open on one connection, e.g. concurrent polls
+         */
+        private long maxConcurrentStreams = 1000;
+
+        /**
+         * Streams of one connection processed at the same time, the others wait for a thread
+         */
+        private int maxConcurrentStreamExecution = 200;
+
+        /**
+         * Flow-control window of each stream, in bytes
+         */
+        private int initialWindowSize = 1024 * 1024;
+
+        /**
+         * Time an idle connection is kept open
+         */
+        private long keepAliveTimeoutMs = 60000;
+    }
+
+    /**
+     * Reactive mode, used once spring.main.web-application-type is reactive
+     */
+    @Data
+    public static class Reactive {
+        /**
+         * Threads evaluating the script off the event loop, 0 for one per CPU core
+         */
+        private int scriptThreads = 0;
+
+        /**
+         * Evaluations waiting for a script thread, further requests are rejected
+         */
+        private int scriptQueueSize = 100000;
+    }
+
+    /**
+     * Structured access log, one JSON line per sampled request, written off the request threads
+     */
+    @Data
+    public static class AccessLog {
+        private boolean enabled = true;
+
+        /**
+         * Requests waiting to be written, rounded up to a power of two; further requests are not logged
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * File the lines are appended to, empty for the kyx.access logger
+         */
+        private String path = "";
+
+        /**
+         * Share of requests logged for routes without their own rate, from 0 to 1
+         */
+        private double defaultSampleRate = 1.0;
+
+        /**
+         * Share of requests logged per route pattern, e.g. "[/address/{address}]": 0.01
+         */
+        private Map<String, Double> sampleRates = new HashMap<>();
+
+        /**
+         * Log every request answered with a 5xx status, whatever the sample rate
+         */
+        private boolean alwaysLogErrors = true;
+    }
+
+    /**
+     * Request rate limits of the provider routes, answered with 429 and Retry-After once spent
+     */
+    @Data
+    public static class RateLimit {
+        private boolean enabled = false;
+
+        /**
+         * Per userId path variable
+         */
+        private RateLimitRule user = new RateLimitRule();
+
+        /**
+         * Per API token, read from the first of the token headers a request carries
+         */
+        private RateLimitRule token = new RateLimitRule();
+
+        /**
+         * Headers the API token is read from: Token for Chainalysis, Authorization for GoPlus
+         */
+        private List<String> tokenHeaders = new ArrayList<>(List.of("Token", "Authorization"));
+
+        /**
+         * Maps the buckets of each rule are spread over, rounded up to a power of two
+         */
+        private int stripes = 64;
+
+        /**
+         * Interval at which buckets that are full again are forgotten
+         */
+        private long idleEvictionMs = 60000;
+    }
+
+    @Data
+    public static class RateLimitRule {
+        /**
+         * Sustained requests per second per key, 0 for unlimited
+         */
+        private double requestsPerSecond;
+
+        /**
+         * Requests a key may send at once after being idle
+         */
+        private long burst = 1;
+    }
+
+    /**
+     * Faults injected in front of the provider routes, to exercise client retries and timeouts
+     */
+    @Data
+    public static class Faults {
+        private boolean enabled = true;
+
+        /**
+         * Rules in priority order; the first matching rule that fires decides the fault.
+         * Replaced at runtime through PUT /admin/faults
+         */
+        private List<FaultRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    public static class FaultRule {
+        /**
+         * Route pattern the rule applies to, e.g. /address/{address}; empty for every provider route
+         */
+        private String route = "";
+
+        /**
+         * userId path variable the rule applies to; empty for every user
+         */
+        private String userId = "";
+
+        /**
+         * Share of the matching requests that fail, from 0 to 1
+         */
+        private double rate = 1.0;
+
+        /**
+         * status, malformed, truncated, reset or stall
+         */
+        private String type = "status";
+
+        /**
+         * Status of status faults, and of stall faults once the stall is over
+         */
+        private int status = 500;
+
+        /**
+         * Time a stall fault holds the request before answering
+         */
+        private long stallMs = 30000;
+    }
+}
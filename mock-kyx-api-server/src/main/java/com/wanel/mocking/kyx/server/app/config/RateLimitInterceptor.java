@@ -0,0 +1,78 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.wanel.mocking.kyx.server.apis.KyxProviderApi;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.app.error.RateLimitExceededException;
+import com.wanel.mocking.kyx.server.core.service.RateLimitService;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Enforces the rate limits on the routes of the provider controllers, keyed by the userId
+ * path variable and the API token header. Refused requests reach GlobalExceptionHandler
+ * as a RateLimitExceededException, before the controller runs.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "kyx.rate-limit.enabled", havingValue = "true")
+public class RateLimitInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final RateLimitService rateLimitService;
+    private final KyxConfiguration kyxConfiguration;
+
+    @Autowired
+    public RateLimitInterceptor(RateLimitService rateLimitService, KyxConfiguration kyxConfiguration) {
+        this.rateLimitService = rateLimitService;
+        this.kyxConfiguration = kyxConfiguration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Completions of DeferredResults are dispatched again, but were counted when they arrived
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod handlerMethod)
+                || !(handlerMethod.getBean() instanceof KyxProviderApi)) {
+            return true;
+        }
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        long wait = rateLimitService.acquire(variables != null ? variables.get("userId") : null, token(request));
+        if (wait > 0) {
+            throw new RateLimitExceededException(
+                    handlerMethod.getBean() instanceof GoPlusController ? "goplus" : "chainalysis", wait);
+        }
+        return true;
+    }
+
+    private String token(HttpServletRequest request) {
+        List<String> headers = kyxConfiguration.getRateLimit().getTokenHeaders();
+        for (int i = 0; i < headers.size(); i++) {
+            String token = request.getHeader(headers.get(i));
+            if (token != null) {
+                return token;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxRegistrations;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.WebFilter;
+
+import com.wanel.mocking.kyx.server.app.controller.reactive.ReactiveGoPlusController;
+import com.wanel.mocking.kyx.server.core.service.AccessLogService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive mode (spring.main.web-application-type: reactive): the provider routes are served
+ * by the controllers of the reactive package on Netty, with script evaluation offloaded from
+ * the event loop to a bounded scheduler.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * Netty rather than Tomcat, which Spring Boot would otherwise pick since it is on the classpath too
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * The servlet controllers stay beans, as the reactive ones delegate to them,
+     * but only the reactive controllers are mapped to routes
+     */
+    @Bean
+    public WebFluxRegistrations reactiveControllersOnly() {
+        String reactivePackage = ReactiveGoPlusController.class.getPackageName();
+        return new WebFluxRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new RequestMappingHandlerMapping() {
+                    @Override
+                    protected boolean isHandler(Class<?> beanType) {
+                        return super.isHandler(beanType) && beanType.getPackageName().equals(reactivePackage);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Records every exchange in the access log once it completes, like AccessLogFilter does in servlet mode
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kyx.access-log.enabled", havingValue = "true", matchIfMissing = true)
+    public WebFilter accessLogWebFilter(AccessLogService accessLogService) {
+        return (exchange, chain) -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Map<String, String> variables = exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                accessLogService.record(exchange.getRequest().getMethod().name(),
+                        pattern != null ? pattern.toString() : exchange.getRequest().getPath().value(),
+                        status != null ? status.value() : 200,
+                        System.nanoTime() - start,
+                        variables != null ? variables.get("userId") : null,
+                        variables != null ? variables.get("externalId") : null);
+            });
+        };
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler scriptScheduler(KyxConfiguration kyxConfiguration) {
+        KyxConfiguration.Reactive config = kyxConfiguration.getReactive();
+        int threads = config.getScriptThreads() > 0 ? config.getScriptThreads() : Runtime.getRuntime().availableProcessors();
+        log.info("Evaluating scripts on {} threads, at most {} queued", threads, config.getScriptQueueSize());
+        return Schedulers.newBoundedElastic(threads, config.getScriptQueueSize(), "kyx-script");
+    }
+}
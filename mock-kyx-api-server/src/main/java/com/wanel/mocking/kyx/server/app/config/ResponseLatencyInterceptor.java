@@ -0,0 +1,67 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.wanel.mocking.kyx.server.apis.KyxProviderApi;
+import com.wanel.mocking.kyx.server.core.service.LatencySimulationService;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delays the provider routes by the kyx.simulation.response profiles. A delayed request is
+ * put in async mode and dispatched again to its controller by the timer wheel, so no thread
+ * waits meanwhile. Runs after the rate limits and fault rules, which answer at once.
+ */
+@Component
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ResponseLatencyInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final LatencySimulationService latencySimulationService;
+    private final TimerService timerService;
+
+    @Autowired
+    public ResponseLatencyInterceptor(LatencySimulationService latencySimulationService, TimerService timerService) {
+        this.latencySimulationService = latencySimulationService;
+        this.timerService = timerService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).order(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Delayed requests come back as async dispatches, as do completions of DeferredResults
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod handlerMethod)
+                || !(handlerMethod.getBean() instanceof KyxProviderApi)) {
+            return true;
+        }
+        LatencySample sample = latencySimulationService.sampleResponse(
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (sample == null || sample.delayMs() <= 0) {
+            return true;
+        }
+        log.debug("Delaying {} by {} ms ({})", request.getRequestURI(), sample.delayMs(), sample.profile());
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        timerService.schedule(asyncContext::dispatch, sample.delayMs());
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+import com.wanel.mocking.kyx.server.core.template.ResponseTemplate;
+
+/**
+ * JSON writer for the responses that are (nearly) the same every time: the clean GoPlus
+ * address result, empty alert lists and the status-only registration checks. These are
+ * written from pre-encoded templates, with externalId and updatedAt spliced in; any other
+ * body of the same types is serialized by Jackson as before. Write-only, ahead of the
+ * Jackson converter; Smile and CBOR negotiation is unaffected.
+ */
+public class ResponseTemplateHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final Set<Class<?>> TYPES = Set.of(GoPlusRiskEoaAddressResponse.class, CAKyXAlertResponse.class,
+            CAKyaRegisterResponse.class, CAKytRegisterResponse.class);
+
+    private final ObjectMapper objectMapper;
+    /** Templates of constant responses, keyed by a response equal to them; never modified after construction */
+    private final Map<Object, ResponseTemplate> constants = new HashMap<>();
+    private final ResponseTemplate kyaPending;
+    private final ResponseTemplate kyaReady;
+    private final ResponseTemplate kytPending;
+    private final ResponseTemplate kytReady;
+
+    public ResponseTemplateHttpMessageConverter(ObjectMapper objectMapper) throws IOException {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        constant(GoPlusController.okResponse(GoPlusController.noRiskResult()));
+        constant(new CAKyXAlertResponse());
+        this.kyaPending = ResponseTemplate.of(objectMapper, CAKyaRegisterResponse.builder()
+                .externalId(ResponseTemplate.slot(0)).build());
+        this.kyaReady = ResponseTemplate.of(objectMapper, CAKyaRegisterResponse.builder()
+                .updatedAt(ResponseTemplate.slot(0)).externalId(ResponseTemplate.slot(1)).build());
+        this.kytPending = ResponseTemplate.of(objectMapper, CAKytRegisterResponse.builder()
+                .externalId(ResponseTemplate.slot(0)).build());
+        this.kytReady = ResponseTemplate.of(objectMapper, CAKytRegisterResponse.builder()
+                .updatedAt(ResponseTemplate.slot(0)).externalId(ResponseTemplate.slot(1)).build());
+    }
+
+    private void constant(Object response) throws IOException {
+        constants.put(response, ResponseTemplate.of(objectMapper, response));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TYPES.contains(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Response templates are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object body, MediaType contentType) {
+        ResponseTemplate template = constants.get(body);
+        return template != null ? Long.valueOf(template.constantLength()) : null;
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        write(body, outputMessage.getBody());
+    }
+
+    /**
+     * Write the JSON of a response, from its template if it has one
+     */
+    public void write(Object body, OutputStream out) throws IOException {
+        ResponseTemplate template = constants.get(body);
+        if (template != null) {
+            template.write(out);
+        } else if (body instanceof CAKyaRegisterResponse kya && isStatusOnly(kya)) {
+            writeStatus(out, kya.getUpdatedAt(), kya.getExternalId(), kyaPending, kyaReady);
+        } else if (body instanceof CAKytRegisterResponse kyt && isStatusOnly(kyt)) {
+            writeStatus(out, kyt.getUpdatedAt(), kyt.getExternalId(), kytPending, kytReady);
+        } else {
+            objectMapper.writeValue(StreamUtils.nonClosing(out), body);
+        }
+    }
+
+    private static void writeStatus(OutputStream out, String updatedAt, String externalId,
+                                    ResponseTemplate pending, ResponseTemplate ready) throws IOException {
+        if (updatedAt == null) {
+            pending.write(out, externalId);
+        } else {
+            ready.write(out, updatedAt, externalId);
+        }
+    }
+
+    /**
+     * Whether the response is a registration check: only externalId and updatedAt may be set
+     */
+    private static boolean isStatusOnly(CAKyaRegisterResponse response) {
+        return response.getExternalId() != null && response.getAsset() == null && response.getNetwork() == null
+                && response.getAddress() == null && response.getAttemptIdentifier() == null
+                && response.getUsdAmount() == null && response.getAssetAmount() == null;
+    }
+
+    private static boolean isStatusOnly(CAKytRegisterResponse response) {
+        return response.getExternalId() != null && response.getAsset() == null && response.getNetwork() == null
+                && response.getTransferReference() == null && response.getTx() == null && response.getIdx() == null
+                && response.getUsdAmount() == null && response.getAssetAmount() == null
+                && response.getTimestamp() == null && response.getOutputAddress() == null;
+    }
+}
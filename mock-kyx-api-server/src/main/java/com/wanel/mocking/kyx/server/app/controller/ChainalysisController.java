@@ -1,8 +1,11 @@
 package com.wanel.mocking.kyx.server.app.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,8 +14,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.wanel.mocking.kyx.server.apis.KyxProviderApi;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.app.error.QuotaExceededException;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
 import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
 import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertMonitorResponse;
@@ -21,9 +28,19 @@ import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
 import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
 import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
 import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAScreeningResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAUserRegistrationsResponse;
+import com.wanel.mocking.kyx.server.core.service.ExternalIdCodec;
+import com.wanel.mocking.kyx.server.core.service.IdempotencyIndex;
+import com.wanel.mocking.kyx.server.core.service.LatencySimulationService;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
 import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
 
 import jakarta.validation.Valid;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
@@ -32,13 +49,13 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 /**
  * Controller for Chainalysis API endpoints
@@ -49,18 +66,56 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ChainalysisController implements KyxProviderApi {
 
     private final RiskCheckService riskCheckService;
+    private final LatencySimulationService latencySimulationService;
     
-    // Map to store registration params for later risk checks when alerts are requested
-    private final Map<String, Map<String, Object>> registrationParams = new ConcurrentHashMap<>();
-    private final Random random = new Random();
+    // Store of registration params for later risk checks when alerts are requested
+    private final RegistrationStore registrationStore;
+    private final ExternalIdCodec externalIdCodec;
+    private final KyxConfiguration kyxConfiguration;
+    private final TimerService timerService;
+    private final RegistrationEventService registrationEventService;
+    private final IdempotencyIndex idempotencyIndex;
     
     // Default expiration time is 1 hour (in milliseconds)
     @Value("${chainalysis.registration.expiration-time-ms:3600000}")
+    @Setter
     private long expirationTimeMs;
+    
+    // Upper bound of the waitMs a client may ask the status endpoints to hold a request for
+    @Value("${chainalysis.registration.max-wait-ms:30000}")
+    @Setter
+    private long maxWaitMs;
+
+    // Runs the status checks completing long-polls and screenings, which may evaluate the script,
+    // so that the timer thread only hands them over
+    private Executor completionExecutor = ForkJoinPool.commonPool();
 
     @Autowired
-    public ChainalysisController(RiskCheckService riskCheckService) {
+    public ChainalysisController(RiskCheckService riskCheckService,
+                                 LatencySimulationService latencySimulationService,
+                                 RegistrationStore registrationStore,
+                                 ExternalIdCodec externalIdCodec,
+                                 KyxConfiguration kyxConfiguration,
+                                 TimerService timerService,
+                                 RegistrationEventService registrationEventService,
+                                 IdempotencyIndex idempotencyIndex) {
         this.riskCheckService = riskCheckService;
+        this.latencySimulationService = latencySimulationService;
+        this.registrationStore = registrationStore;
+        this.externalIdCodec = externalIdCodec;
+        this.kyxConfiguration = kyxConfiguration;
+        this.timerService = timerService;
+        this.registrationEventService = registrationEventService;
+        this.idempotencyIndex = idempotencyIndex;
+        if (externalIdCodec.isEnabled() && kyxConfiguration.getUserQuota().getMaxRegistrations() > 0) {
+            log.warn("Stateless registrations are not stored, kyx.user-quota.max-registrations has no effect");
+        }
+    }
+
+    @Autowired
+    public void setCompletionExecutor(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor completionExecutor) {
+        this.completionExecutor = completionExecutor;
     }
 
     /**
@@ -69,7 +124,7 @@ public class ChainalysisController implements KyxProviderApi {
     @PostMapping("/check")
     @Override
     public ResponseEntity<?> checkTransaction(@Valid @RequestBody TransactionCheckRequest request) {
-        log.info("Received Chainalysis check request: {}", request);
+        log.debug("Received Chainalysis check request: {}", request);
         
         RiskCheckResult result = riskCheckService.checkRisk(request);
         
@@ -93,22 +148,7 @@ public class ChainalysisController implements KyxProviderApi {
     public void cleanupExpiredRegistrations() {
         log.info("Running scheduled cleanup of expired registrations");
         long currentTime = Instant.now().toEpochMilli();
-        int removedCount = 0;
-        
-        Iterator<Map.Entry<String, Map<String, Object>>> iterator = registrationParams.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, Map<String, Object>> entry = iterator.next();
-            Map<String, Object> params = entry.getValue();
-            
-            if (params.containsKey("expiresAt")) {
-                long expiresAt = (long) params.get("expiresAt");
-                if (currentTime > expiresAt) {
-                    iterator.remove();
-                    removedCount++;
-                    log.debug("Removed expired registration with externalId: {}", entry.getKey());
-                }
-            }
-        }
+        int removedCount = registrationStore.removeExpired(currentTime);
         
         if (removedCount > 0) {
             log.info("Cleaned up {} expired registration entries", removedCount);
@@ -125,27 +165,45 @@ public class ChainalysisController implements KyxProviderApi {
     public ResponseEntity<CAKyaRegisterResponse> registerKya(
             @PathVariable("userId") String userId,
             @Valid @RequestBody CAKyaRequest request) {
-        log.info("Received Chainalysis KYA register request for userId: {}, request: {}", userId, request);
-        
-        // Generate external ID
-        String externalId = UUID.randomUUID().toString();
+        log.debug("Received Chainalysis KYA register request for userId: {}, request: {}", userId, request);
+        
+        // A retried attempt gets back the original registration
+        String idempotencyKey = idempotencyKey("kya", userId,
+                request.getIdentifier() != null ? request.getIdentifier() : request.getRequestHash());
+        CAKyaRegisterResponse original = idempotencyKey != null ? idempotencyIndex.get(idempotencyKey) : null;
+        if (original != null) {
+            log.debug("Returning original registration {} for duplicate KYA request", original.getExternalId());
+            return ResponseEntity.ok(currentKya(original));
+        }
+        checkUserQuota(userId);
         
         // Store the parameters for later risk check when alerts are requested
         Map<String, Object> params = new HashMap<>();
         params.put("targetAddress", request.getTargetAddress());
         params.put("chainId", request.getChainId());
         params.put("requestType", "kya"); // Add type for reference
+        params.put("userId", userId);
+        
+        // Add creation and expiration timestamps
+        long createdAt = Instant.now().toEpochMilli();
+        params.put("createdAt", createdAt);
+        params.put("expiresAt", createdAt + expirationTimeMs);
+        
+        // Draw the readiness delay from the configured profile and record it with the registration
+        LatencySample delay = latencySimulationService.sampleReadiness("kya");
+        params.put("delayProfile", delay.profile());
+        params.put("delayMs", delay.delayMs());
+        params.put("delaySequence", delay.sequence());
+        if (delay.delayMs() > 0) {
+            params.put("validTimestamp", createdAt + delay.delayMs());
+        }
         
-        // Add expiration timestamp
-        long expiresAt = Instant.now().toEpochMilli() + expirationTimeMs;
-        params.put("expiresAt", expiresAt);
-        
-        // Generate a random delay between 0-10 seconds
-        int delaySeconds = random.nextInt(11); // 0-10 seconds
-        log.info("Generated random delay of {} seconds for KYA request {}", delaySeconds, externalId);
+        // Generate external ID
+        String externalId = newExternalId(params);
+        log.debug("Generated delay of {} ms ({} #{}) for KYA request {}", delay.delayMs(), delay.profile(), delay.sequence(), externalId);
         
-        // Format current time as ISO timestamp
-        String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now());
+        // Format creation time as ISO timestamp
+        String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(createdAt));
         
         // Create response object
         CAKyaRegisterResponse response = new CAKyaRegisterResponse();
@@ -157,19 +215,29 @@ public class ChainalysisController implements KyxProviderApi {
         response.setExternalId(externalId);
         
         // If delay is 0, set updatedAt immediately
-        if (delaySeconds == 0) {
+        if (delay.delayMs() == 0) {
             response.setUpdatedAt(timestamp);
             params.put("updatedAt", timestamp);
-            log.info("Immediately setting updatedAt for KYA request {}", externalId);
+            log.debug("Immediately setting updatedAt for KYA request {}", externalId);
         } else {
-            // Otherwise, compute the valid timestamp for later checks
-            long validTimestamp = Instant.now().getEpochSecond() + delaySeconds;
-            params.put("validTimestamp", validTimestamp);
-            log.info("Setting validTimestamp {} for KYA request {}", validTimestamp, externalId);
+            log.debug("Setting validTimestamp {} for KYA request {}", params.get("validTimestamp"), externalId);
         }
         
-        // Store parameters for later use - NO risk check performed here
-        registrationParams.put(externalId, params);
+        // Store parameters for later use - NO risk check performed here. Storing takes the user's
+        // quota slot, and comes first so that a duplicate finding the index entry also finds the registration.
+        storeWithinQuota(userId, externalId, params);
+        
+        // A concurrent duplicate may have registered first
+        if (idempotencyKey != null) {
+            original = idempotencyIndex.putIfAbsent(idempotencyKey, response, createdAt + expirationTimeMs);
+            if (original != null) {
+                if (!externalIdCodec.isEnabled()) {
+                    registrationStore.remove(externalId);
+                }
+                return ResponseEntity.ok(currentKya(original));
+            }
+        }
+        scheduleReadyEvent(externalId, params);
         
         return ResponseEntity.ok(response);
     }
@@ -182,14 +250,13 @@ public class ChainalysisController implements KyxProviderApi {
      */
     @GetMapping("/api/kyt/v2/withdrawal-attempts/{externalId}")
     public ResponseEntity<CAKyaRegisterResponse> checkKyaRegistration(@PathVariable("externalId") String externalId) {
-        log.info("Received Chainalysis KYA registration check for externalId: {}", externalId);
+        log.debug("Received Chainalysis KYA registration check for externalId: {}", externalId);
         
         // If the registration exists, check if it's ready
-        if (registrationParams.containsKey(externalId)) {
-            Map<String, Object> params = registrationParams.get(externalId);
-            
+        Map<String, Object> params = findRegistration(externalId);
+        if (params != null) {
             // Current timestamp for checking and response
-            long currentTimestamp = Instant.now().getEpochSecond();
+            long currentTimestamp = Instant.now().toEpochMilli();
             String currentTimeString = DateTimeFormatter.ISO_INSTANT.format(Instant.now());
             
             // Create response object
@@ -199,27 +266,39 @@ public class ChainalysisController implements KyxProviderApi {
             // Case 1: Already has updatedAt set
             if (params.containsKey("updatedAt")) {
                 response.setUpdatedAt((String) params.get("updatedAt"));
-                log.info("Returning existing updatedAt for KYA request {}", externalId);
+                log.debug("Returning existing updatedAt for KYA request {}", externalId);
             } 
             // Case 2: Has validTimestamp and current time is after it
             else if (params.containsKey("validTimestamp")) {
-                long validTimestamp = (long) params.get("validTimestamp");
+                long validTimestamp = ((Number) params.get("validTimestamp")).longValue();
                 
                 if (currentTimestamp >= validTimestamp) {
                     response.setUpdatedAt(currentTimeString);
-                    params.put("updatedAt", currentTimeString); // Store for future requests
-                    log.info("Setting updatedAt now that validTimestamp has passed for KYA request {}", externalId);
+                    markReady(externalId, params, currentTimeString); // Store for future requests
+                    log.debug("Setting updatedAt now that validTimestamp has passed for KYA request {}", externalId);
                 }
                 // If current time is not after validTimestamp, leave updatedAt unset
             }
             
-            return ResponseEntity.ok(response);
+            return withRetryAfter(response, response.getUpdatedAt() != null, params);
         }
         
         // If not found, return empty response
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Step 2 (long-polling): Check status of a KYA registration, holding the request
+     * asynchronously until the registration is ready or waitMs has passed
+     * GET /api/kyt/v2/withdrawal-attempts/{externalId}?waitMs=5000
+     */
+    @GetMapping(value = "/api/kyt/v2/withdrawal-attempts/{externalId}", params = "waitMs")
+    public DeferredResult<ResponseEntity<CAKyaRegisterResponse>> waitKyaRegistration(
+            @PathVariable("externalId") String externalId,
+            @RequestParam("waitMs") long waitMs) {
+        return waitForRegistration(externalId, waitMs, () -> checkKyaRegistration(externalId));
+    }
+    
     /**
      * Step 3: Get alerts for a registered address
      * GET /api/kyt/v2/withdrawal-attempts/{externalId}/alerts
@@ -228,27 +307,18 @@ public class ChainalysisController implements KyxProviderApi {
      */
     @GetMapping("/api/kyt/v2/withdrawal-attempts/{externalId}/alerts")
     public ResponseEntity<CAKyXAlertResponse> getKyaAlerts(@PathVariable("externalId") String externalId) {
-        log.info("Received Chainalysis KYA alerts request for externalId: {}", externalId);
+        log.debug("Received Chainalysis KYA alerts request for externalId: {}", externalId);
         
         CAKyXAlertResponse response = new CAKyXAlertResponse();
         
         // If the registration exists, perform risk check now
-        if (registrationParams.containsKey(externalId)) {
-            Map<String, Object> params = registrationParams.get(externalId);
-            
+        Map<String, Object> params = findRegistration(externalId);
+        if (params != null) {
             // Perform risk check when alerts are requested
             RiskCheckResult result = riskCheckService.checkRisk(params);
             
             if (result.isInRisk()) {
-                CAKyXAlertResponse.Alert alert = new CAKyXAlertResponse.Alert();
-                alert.setAlertLevel("HIGH");
-                alert.setCategory("money_laundering_fraud");
-                alert.setService("Mock KYX Server");
-                alert.setExternalId(externalId);
-                alert.setAlertAmount(BigDecimal.valueOf(1000));
-                alert.setExposureType("DIRECT");
-                
-                response.setAlerts(Collections.singletonList(alert));
+                response.setAlerts(CAKyXAlertResponse.alerts(result.getCategories(), externalId));
             }
         }
         
@@ -265,10 +335,16 @@ public class ChainalysisController implements KyxProviderApi {
     public ResponseEntity<CAKytRegisterResponse> registerKyt(
             @PathVariable("userId") String userId,
             @Valid @RequestBody CAKytRequest request) {
-        log.info("Received Chainalysis KYT register request for userId: {}, request: {}", userId, request);
-        
-        // Generate external ID
-        String externalId = UUID.randomUUID().toString();
+        log.debug("Received Chainalysis KYT register request for userId: {}, request: {}", userId, request);
+        
+        // A retried transfer gets back the original registration
+        String idempotencyKey = idempotencyKey("kyt", userId, request.getRequestHash());
+        CAKytRegisterResponse original = idempotencyKey != null ? idempotencyIndex.get(idempotencyKey) : null;
+        if (original != null) {
+            log.debug("Returning original registration {} for duplicate KYT request", original.getExternalId());
+            return ResponseEntity.ok(currentKyt(original));
+        }
+        checkUserQuota(userId);
         
         // Store the parameters for later risk check when alerts are requested
         Map<String, Object> params = new HashMap<>();
@@ -278,21 +354,32 @@ public class ChainalysisController implements KyxProviderApi {
         params.put("tokenAmount", request.getTokenAmount());
         params.put("chainId", request.getChainId());
         params.put("requestType", "kyt"); // Add type for reference
+        params.put("userId", userId);
         
         if (request.getTxHash() != null) {
             params.put("txHash", request.getTxHash());
         }
         
-        // Add expiration timestamp
-        long expiresAt = Instant.now().toEpochMilli() + expirationTimeMs;
-        params.put("expiresAt", expiresAt);
+        // Add creation and expiration timestamps
+        long createdAt = Instant.now().toEpochMilli();
+        params.put("createdAt", createdAt);
+        params.put("expiresAt", createdAt + expirationTimeMs);
+        
+        // Draw the readiness delay from the configured profile and record it with the registration
+        LatencySample delay = latencySimulationService.sampleReadiness("kyt");
+        params.put("delayProfile", delay.profile());
+        params.put("delayMs", delay.delayMs());
+        params.put("delaySequence", delay.sequence());
+        if (delay.delayMs() > 0) {
+            params.put("validTimestamp", createdAt + delay.delayMs());
+        }
         
-        // Generate a random delay between 0-10 seconds
-        int delaySeconds = random.nextInt(11); // 0-10 seconds
-        log.info("Generated random delay of {} seconds for KYT request {}", delaySeconds, externalId);
+        // Generate external ID
+        String externalId = newExternalId(params);
+        log.debug("Generated delay of {} ms ({} #{}) for KYT request {}", delay.delayMs(), delay.profile(), delay.sequence(), externalId);
         
-        // Format current time as ISO timestamp
-        String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now());
+        // Format creation time as ISO timestamp
+        String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(createdAt));
         
         // Calculate asset amount for response
         BigDecimal assetAmount = BigDecimal.valueOf(
@@ -313,19 +400,29 @@ public class ChainalysisController implements KyxProviderApi {
         response.setExternalId(externalId);
         
         // If delay is 0, set updatedAt immediately
-        if (delaySeconds == 0) {
+        if (delay.delayMs() == 0) {
             response.setUpdatedAt(timestamp);
             params.put("updatedAt", timestamp);
-            log.info("Immediately setting updatedAt for KYT request {}", externalId);
+            log.debug("Immediately setting updatedAt for KYT request {}", externalId);
         } else {
-            // Otherwise, compute the valid timestamp for later checks
-            long validTimestamp = Instant.now().getEpochSecond() + delaySeconds;
-            params.put("validTimestamp", validTimestamp);
-            log.info("Setting validTimestamp {} for KYT request {}", validTimestamp, externalId);
+            log.debug("Setting validTimestamp {} for KYT request {}", params.get("validTimestamp"), externalId);
         }
         
-        // Store parameters for later use - NO risk check performed here
-        registrationParams.put(externalId, params);
+        // Store parameters for later use - NO risk check performed here. Storing takes the user's
+        // quota slot, and comes first so that a duplicate finding the index entry also finds the registration.
+        storeWithinQuota(userId, externalId, params);
+        
+        // A concurrent duplicate may have registered first
+        if (idempotencyKey != null) {
+            original = idempotencyIndex.putIfAbsent(idempotencyKey, response, createdAt + expirationTimeMs);
+            if (original != null) {
+                if (!externalIdCodec.isEnabled()) {
+                    registrationStore.remove(externalId);
+                }
+                return ResponseEntity.ok(currentKyt(original));
+            }
+        }
+        scheduleReadyEvent(externalId, params);
         
         return ResponseEntity.ok(response);
     }
@@ -338,14 +435,13 @@ public class ChainalysisController implements KyxProviderApi {
      */
     @GetMapping("/api/kyt/v2/transfers/{externalId}")
     public ResponseEntity<CAKytRegisterResponse> checkKytRegistration(@PathVariable("externalId") String externalId) {
-        log.info("Received Chainalysis KYT registration check for externalId: {}", externalId);
+        log.debug("Received Chainalysis KYT registration check for externalId: {}", externalId);
         
         // If the registration exists, check if it's ready
-        if (registrationParams.containsKey(externalId)) {
-            Map<String, Object> params = registrationParams.get(externalId);
-            
+        Map<String, Object> params = findRegistration(externalId);
+        if (params != null) {
             // Current timestamp for checking and response
-            long currentTimestamp = Instant.now().getEpochSecond();
+            long currentTimestamp = Instant.now().toEpochMilli();
             String currentTimeString = DateTimeFormatter.ISO_INSTANT.format(Instant.now());
             
             // Create response object
@@ -355,27 +451,39 @@ public class ChainalysisController implements KyxProviderApi {
             // Case 1: Already has updatedAt set
             if (params.containsKey("updatedAt")) {
                 response.setUpdatedAt((String) params.get("updatedAt"));
-                log.info("Returning existing updatedAt for KYT request {}", externalId);
+                log.debug("Returning existing updatedAt for KYT request {}", externalId);
             } 
             // Case 2: Has validTimestamp and current time is after it
             else if (params.containsKey("validTimestamp")) {
-                long validTimestamp = (long) params.get("validTimestamp");
+                long validTimestamp = ((Number) params.get("validTimestamp")).longValue();
                 
                 if (currentTimestamp >= validTimestamp) {
                     response.setUpdatedAt(currentTimeString);
-                    params.put("updatedAt", currentTimeString); // Store for future requests
-                    log.info("Setting updatedAt now that validTimestamp has passed for KYT request {}", externalId);
+                    markReady(externalId, params, currentTimeString); // Store for future requests
+                    log.debug("Setting updatedAt now that validTimestamp has passed for KYT request {}", externalId);
                 }
                 // If current time is not after validTimestamp, leave updatedAt unset
             }
             
-            return ResponseEntity.ok(response);
+            return withRetryAfter(response, response.getUpdatedAt() != null, params);
         }
         
         // If not found, return empty response
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Step 2 (long-polling): Check status of a KYT registration, holding the request
+     * asynchronously until the registration is ready or waitMs has passed
+     * GET /api/kyt/v2/transfers/{externalId}?waitMs=5000
+     */
+    @GetMapping(value = "/api/kyt/v2/transfers/{externalId}", params = "waitMs")
+    public DeferredResult<ResponseEntity<CAKytRegisterResponse>> waitKytRegistration(
+            @PathVariable("externalId") String externalId,
+            @RequestParam("waitMs") long waitMs) {
+        return waitForRegistration(externalId, waitMs, () -> checkKytRegistration(externalId));
+    }
+    
     /**
      * Step 3: Get alerts for a registered transaction
      * GET /api/kyt/v2/transfers/{externalId}/alerts
@@ -384,33 +492,82 @@ public class ChainalysisController implements KyxProviderApi {
      */
     @GetMapping("/api/kyt/v2/transfers/{externalId}/alerts")
     public ResponseEntity<CAKyXAlertResponse> getKytAlerts(@PathVariable("externalId") String externalId) {
-        log.info("Received Chainalysis KYT alerts request for externalId: {}", externalId);
+        log.debug("Received Chainalysis KYT alerts request for externalId: {}", externalId);
         
         CAKyXAlertResponse response = new CAKyXAlertResponse();
         
         // If the registration exists, perform risk check now
-        if (registrationParams.containsKey(externalId)) {
-            Map<String, Object> params = registrationParams.get(externalId);
-            
+        Map<String, Object> params = findRegistration(externalId);
+        if (params != null) {
             // Perform risk check when alerts are requested
             RiskCheckResult result = riskCheckService.checkRisk(params);
             
             if (result.isInRisk()) {
-                CAKyXAlertResponse.Alert alert = new CAKyXAlertResponse.Alert();
-                alert.setAlertLevel("HIGH");
-                alert.setCategory("money_laundering_fraud");
-                alert.setService("Mock KYX Server");
-                alert.setExternalId(externalId);
-                alert.setAlertAmount(BigDecimal.valueOf(1000));
-                alert.setExposureType("DIRECT");
-                
-                response.setAlerts(Collections.singletonList(alert));
+                response.setAlerts(CAKyXAlertResponse.alerts(result.getCategories(), externalId));
             }
         }
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Composite KYA check: register, wait for readiness and get alerts in one call
+     * POST /api/kyt/v2/users/{userId}/withdrawal-attempts/screen?fast=false
+     * 
+     * Not a Chainalysis endpoint. The request is held asynchronously until the registration
+     * is ready (at most max-wait-ms); fast=true skips the wait.
+     */
+    @PostMapping("/api/kyt/v2/users/{userId}/withdrawal-attempts/screen")
+    public DeferredResult<ResponseEntity<CAScreeningResponse<CAKyaRegisterResponse>>> screenKya(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "fast", defaultValue = "false") boolean fast,
+            @Valid @RequestBody CAKyaRequest request) {
+        CAKyaRegisterResponse original = registerKya(userId, request).getBody();
+        return waitForRegistration(original.getExternalId(), fast ? 0 : maxWaitMs, () -> kyaScreeningResult(original));
+    }
+    
+    /**
+     * Screening result of a KYA registration as of now: its current status and alerts
+     */
+    public ResponseEntity<CAScreeningResponse<CAKyaRegisterResponse>> kyaScreeningResult(CAKyaRegisterResponse original) {
+        String externalId = original.getExternalId();
+        ResponseEntity<CAKyaRegisterResponse> status = checkKyaRegistration(externalId);
+        // the original response may be shared through the idempotency index, so it's copied
+        CAKyaRegisterResponse registration = original.toBuilder()
+                .updatedAt(status.getBody() != null ? status.getBody().getUpdatedAt() : null)
+                .build();
+        return screeningResponse(status, registration, getKyaAlerts(externalId).getBody());
+    }
+    
+    /**
+     * Composite KYT check: register, wait for readiness and get alerts in one call
+     * POST /api/kyt/v2/users/{userId}/transfers/screen?fast=false
+     * 
+     * Not a Chainalysis endpoint. The request is held asynchronously until the registration
+     * is ready (at most max-wait-ms); fast=true skips the wait.
+     */
+    @PostMapping("/api/kyt/v2/users/{userId}/transfers/screen")
+    public DeferredResult<ResponseEntity<CAScreeningResponse<CAKytRegisterResponse>>> screenKyt(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "fast", defaultValue = "false") boolean fast,
+            @Valid @RequestBody CAKytRequest request) {
+        CAKytRegisterResponse original = registerKyt(userId, request).getBody();
+        return waitForRegistration(original.getExternalId(), fast ? 0 : maxWaitMs, () -> kytScreeningResult(original));
+    }
+    
+    /**
+     * Screening result of a KYT registration as of now: its current status and alerts
+     */
+    public ResponseEntity<CAScreeningResponse<CAKytRegisterResponse>> kytScreeningResult(CAKytRegisterResponse original) {
+        String externalId = original.getExternalId();
+        ResponseEntity<CAKytRegisterResponse> status = checkKytRegistration(externalId);
+        // the original response may be shared through the idempotency index, so it's copied
+        CAKytRegisterResponse registration = original.toBuilder()
+                .updatedAt(status.getBody() != null ? status.getBody().getUpdatedAt() : null)
+                .build();
+        return screeningResponse(status, registration, getKytAlerts(externalId).getBody());
+    }
+    
     /**
      * Monitor alerts for registered entities
      * GET /api/kyt/v1/alerts
@@ -421,7 +578,7 @@ public class ChainalysisController implements KyxProviderApi {
             @RequestParam(name = "createdAt_gte", required = false) String startTime,
             @RequestParam(name = "limit", defaultValue = "100") int limit,
             @RequestParam(name = "offset", defaultValue = "0") int offset) {
-        log.info("Received Chainalysis monitoring request with params: start={}, end={}, limit={}, offset={}", 
+        log.debug("Received Chainalysis monitoring request with params: start={}, end={}, limit={}, offset={}", 
                 startTime, endTime, limit, offset);
         
         CAKyXAlertMonitorResponse response = new CAKyXAlertMonitorResponse();
@@ -431,32 +588,297 @@ public class ChainalysisController implements KyxProviderApi {
         response.setData(new ArrayList<>());
         
         // For each registered entity, perform a risk check if not done already
-        for (Map.Entry<String, Map<String, Object>> entry : registrationParams.entrySet()) {
-            String externalId = entry.getKey();
-            Map<String, Object> params = entry.getValue();
-            
-            // Perform risk check for monitoring
-            RiskCheckResult result = riskCheckService.checkRisk(params);
-            
-            if (result.isInRisk()) {
-                CAKyXAlertMonitorResponse.AlertResult alert = new CAKyXAlertMonitorResponse.AlertResult();
-                alert.setAlertAmountUsd(BigDecimal.valueOf(1000));
-                alert.setCategory("money_laundering_fraud");
-                alert.setTransactionHash(UUID.randomUUID().toString());
-                alert.setTransferReference("tx:" + (params.containsKey("toAddress") ? params.get("toAddress") : "0x1234567890"));
-                alert.setExposureType("DIRECT");
-                alert.setTransferReportedAt(DateTimeFormatter.ISO_INSTANT.format(Instant.now()));
-                alert.setAlertIdentifier(UUID.randomUUID().toString());
-                alert.setDirection("SENT");
-                
-                response.getData().add(alert);
-                response.setTotal(response.getTotal() + 1);
+        // (stateless registrations are not stored anywhere and can't be listed)
+        registrationStore.forEach((externalId, params) -> addMonitorAlert(response, params));
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * List the registrations of a single user, touching only that user's shard
+     * GET /api/kyt/v2/users/{userId}/registrations
+     */
+    @GetMapping("/api/kyt/v2/users/{userId}/registrations")
+    public ResponseEntity<CAUserRegistrationsResponse> listUserRegistrations(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "offset", defaultValue = "0") int offset) {
+        log.debug("Received Chainalysis registrations listing for userId: {}, limit={}, offset={}", userId, limit, offset);
+        
+        CAUserRegistrationsResponse response = new CAUserRegistrationsResponse();
+        response.setUserId(userId);
+        response.setLimit(limit);
+        response.setOffset(offset);
+        response.setQuota(kyxConfiguration.getUserQuota().getMaxRegistrations());
+        response.setData(new ArrayList<>());
+        
+        int[] index = new int[1];
+        registrationStore.forEachOfUser(userId, (externalId, params) -> {
+            int i = index[0]++;
+            if (i < offset || i >= offset + limit) {
+                return;
             }
-        }
+            CAUserRegistrationsResponse.Registration registration = new CAUserRegistrationsResponse.Registration();
+            registration.setExternalId(externalId);
+            registration.setRequestType((String) params.get("requestType"));
+            registration.setCreatedAt(params.containsKey("createdAt")
+                    ? DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(((Number) params.get("createdAt")).longValue()))
+                    : null);
+            registration.setUpdatedAt((String) params.get("updatedAt"));
+            registration.setAddress((String) (params.containsKey("targetAddress") ? params.get("targetAddress") : params.get("toAddress")));
+            response.getData().add(registration);
+        });
+        response.setTotal(index[0]);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Monitor alerts of a single user, touching only that user's shard
+     * GET /api/kyt/v2/users/{userId}/alerts
+     */
+    @GetMapping("/api/kyt/v2/users/{userId}/alerts")
+    public ResponseEntity<CAKyXAlertMonitorResponse> monitorUserAlerts(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "offset", defaultValue = "0") int offset) {
+        log.debug("Received Chainalysis monitoring request for userId: {}, limit={}, offset={}", userId, limit, offset);
+        
+        CAKyXAlertMonitorResponse response = new CAKyXAlertMonitorResponse();
+        response.setLimit(limit);
+        response.setOffset(offset);
+        response.setTotal(0);
+        response.setData(new ArrayList<>());
+        
+        // Only the registrations of the requested page are evaluated
+        int[] index = new int[1];
+        registrationStore.forEachOfUser(userId, (externalId, params) -> {
+            int i = index[0]++;
+            if (i >= offset && i < offset + limit) {
+                addMonitorAlert(response, params);
+            }
+        });
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Registration counts per user, with the configured per-user quota
+     * GET /api/kyt/v2/users/registration-counts
+     */
+    @GetMapping("/api/kyt/v2/users/registration-counts")
+    public ResponseEntity<Map<String, Object>> userRegistrationCounts() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("quota", kyxConfiguration.getUserQuota().getMaxRegistrations());
+        response.put("counts", registrationStore.countsByUser());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Perform a risk check for monitoring, adding an alert per risk category to the response
+     */
+    private void addMonitorAlert(CAKyXAlertMonitorResponse response, Map<String, Object> params) {
+        RiskCheckResult result = riskCheckService.checkRisk(params);
+        
+        for (long remaining = result.getCategories(); remaining != 0; remaining &= remaining - 1) {
+            CAKyXAlertMonitorResponse.AlertResult alert = new CAKyXAlertMonitorResponse.AlertResult();
+            alert.setAlertAmountUsd(BigDecimal.valueOf(1000));
+            alert.setCategory(RiskCategory.ofBit(Long.numberOfTrailingZeros(remaining)).getChainalysisCategory());
+            alert.setTransactionHash(UUID.randomUUID().toString());
+            alert.setTransferReference("tx:" + (params.containsKey("toAddress") ? params.get("toAddress") : "0x1234567890"));
+            alert.setExposureType("DIRECT");
+            alert.setTransferReportedAt(DateTimeFormatter.ISO_INSTANT.format(Instant.now()));
+            alert.setAlertIdentifier(UUID.randomUUID().toString());
+            alert.setDirection("SENT");
+            
+            response.getData().add(alert);
+            response.setTotal(response.getTotal() + 1);
+        }
+    }
+    
+    /**
+     * Combine a registration with its alerts, keeping the status check's Retry-After
+     * headers in case the registration wasn't ready in time
+     */
+    private <R> ResponseEntity<CAScreeningResponse<R>> screeningResponse(ResponseEntity<R> status, R registration,
+                                                                        CAKyXAlertResponse alerts) {
+        CAScreeningResponse<R> response = CAScreeningResponse.<R>builder()
+                .registration(registration)
+                .alerts(alerts.getAlerts())
+                .build();
+        return ResponseEntity.status(status.getStatusCode()).headers(status.getHeaders()).body(response);
+    }
+    
+    /**
+     * The original registration of a duplicate KYA request, with its readiness as of now
+     */
+    private CAKyaRegisterResponse currentKya(CAKyaRegisterResponse original) {
+        CAKyaRegisterResponse status = checkKyaRegistration(original.getExternalId()).getBody();
+        // the original response is shared through the idempotency index, so it's copied
+        return original.toBuilder()
+                .updatedAt(status != null ? status.getUpdatedAt() : original.getUpdatedAt())
+                .build();
+    }
+    
+    /**
+     * The original registration of a duplicate KYT request, with its readiness as of now
+     */
+    private CAKytRegisterResponse currentKyt(CAKytRegisterResponse original) {
+        CAKytRegisterResponse status = checkKytRegistration(original.getExternalId()).getBody();
+        // the original response is shared through the idempotency index, so it's copied
+        return original.toBuilder()
+                .updatedAt(status != null ? status.getUpdatedAt() : original.getUpdatedAt())
+                .build();
+    }
+    
+    /**
+     * Key of a registration in the idempotency index, null if the client sent no identifier
+     */
+    private String idempotencyKey(String requestType, String userId, String identifier) {
+        return identifier == null || identifier.isEmpty() ? null : requestType + ":" + userId + ":" + identifier;
+    }
+    
+    /**
+     * Reject a registration early if the user already holds its quota of registrations,
+     * before any work is done for it. The slot itself is taken by {@link #storeWithinQuota}.
+     */
+    private void checkUserQuota(String userId) {
+        long maxRegistrations = kyxConfiguration.getUserQuota().getMaxRegistrations();
+        if (maxRegistrations > 0 && registrationStore.countOfUser(userId) >= maxRegistrations) {
+            throw new QuotaExceededException("User " + userId + " already holds " + maxRegistrations + " registrations");
+        }
+    }
+    
+    /**
+     * Store a registration, atomically taking one of the user's quota slots.
+     * Stateless registrations are not stored, so they are not counted either.
+     */
+    private void storeWithinQuota(String userId, String externalId, Map<String, Object> params) {
+        if (externalIdCodec.isEnabled()) {
+            return;
+        }
+        long maxRegistrations = kyxConfiguration.getUserQuota().getMaxRegistrations();
+        if (!registrationStore.putWithinQuota(externalId, params, maxRegistrations)) {
+            throw new QuotaExceededException("User " + userId + " already holds " + maxRegistrations + " registrations");
+        }
+    }
+    
+    /**
+     * Hand out either a random externalId, or in stateless mode a token carrying the params
+     */
+    private String newExternalId(Map<String, Object> params) {
+        return externalIdCodec.isEnabled() ? externalIdCodec.encode(params) : registrationStore.newExternalId();
+    }
+    
+    /**
+     * Answer a status check once the registration becomes ready or the wait is over,
+     * whichever comes first. The servlet thread is released while waiting.
+     */
+    private <T> DeferredResult<ResponseEntity<T>> waitForRegistration(String externalId, long waitMs,
+                                                                     Supplier<ResponseEntity<T>> statusCheck) {
+        long wait = Math.min(Math.max(waitMs, 0), maxWaitMs);
+        DeferredResult<ResponseEntity<T>> deferred = new DeferredResult<>(wait + 5000);
+        // Only reached if the timer's completion is late; it runs on a container thread and must
+        // set the result before returning, otherwise Spring answers with an async timeout error
+        deferred.onTimeout(() -> deferred.setResult(statusCheck.get()));
+        
+        TimerService.Cancellable timer = whenReady(externalId, wait,
+                () -> completionExecutor.execute(() -> deferred.setResult(statusCheck.get())));
+        if (timer != null) {
+            deferred.onCompletion(timer::cancel);
+        }
+        return deferred;
+    }
+    
+    /**
+     * Run a callback once the registration becomes ready or waitMs (at most max-wait-ms) has passed,
+     * whichever comes first; right away if it is ready already or there is nothing to wait for.
+     * A delayed callback runs on the timer thread, so it must only hand the work over.
+     * 
+     * @return Handle to cancel the pending callback, null if it already ran
+     */
+    public TimerService.Cancellable whenReady(String externalId, long waitMs, Runnable callback) {
+        long wait = Math.min(Math.max(waitMs, 0), maxWaitMs);
+        long remainingMs = remainingUntilReady(findRegistration(externalId));
+        if (remainingMs <= 0 || wait == 0) {
+            callback.run();
+            return null;
+        }
+        return timerService.schedule(callback, Math.min(remainingMs + 1, wait));
+    }
+    
+    /**
+     * Push a ready event (and alert, if risky) to watchers once the registration becomes ready
+     */
+    private void scheduleReadyEvent(String externalId, Map<String, Object> params) {
+        long remainingMs = remainingUntilReady(params);
+        if (remainingMs <= 0) {
+            registrationEventService.registrationReady(externalId, params);
+        } else {
+            timerService.schedule(() -> registrationEventService.registrationReady(externalId, params), remainingMs + 1);
+        }
+    }
+    
+    /**
+     * Milliseconds until a registration becomes ready, 0 if ready or unknown
+     */
+    private long remainingUntilReady(Map<String, Object> params) {
+        if (params == null || params.containsKey("updatedAt") || !params.containsKey("validTimestamp")) {
+            return 0;
+        }
+        return Math.max(0, ((Number) params.get("validTimestamp")).longValue() - Instant.now().toEpochMilli());
+    }
+    
+    /**
+     * Tell clients of a registration that isn't ready yet exactly when to poll again
+     * (Retry-After in whole seconds, X-Retry-After-Ms with millisecond precision)
+     */
+    private <T> ResponseEntity<T> withRetryAfter(T response, boolean ready, Map<String, Object> params) {
+        long remainingMs = ready ? 0 : remainingUntilReady(params);
+        if (remainingMs <= 0) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((remainingMs + 999) / 1000))
+                .header("X-Retry-After-Ms", String.valueOf(remainingMs))
+                .body(response);
+    }
+    
+    /**
+     * Record updatedAt of a registration for future requests. Stored params are never
+     * mutated in place since snapshots and replication read them concurrently; a copy
+     * carrying updatedAt replaces them instead.
+     */
+    private void markReady(String externalId, Map<String, Object> params, String updatedAt) {
+        if (externalIdCodec.isEnabled()) {
+            // Stateless registrations derive updatedAt from their token
+            return;
+        }
+        Map<String, Object> updated = new HashMap<>(params);
+        updated.put("updatedAt", updatedAt);
+        registrationStore.put(externalId, updated);
+    }
+    
+    /**
+     * Bring a registration into this instance ahead of a status lookup without blocking,
+     * so that callers on event loops or on the timer thread can then look it up at once
+     */
+    public CompletableFuture<Map<String, Object>> loadRegistration(String externalId) {
+        return registrationStore.getAsync(externalId);
+    }
+    
+    /**
+     * Look up a registration in the local store, falling back to decoding a stateless token
+     * (which may have been issued by any instance sharing the token secret)
+     */
+    private Map<String, Object> findRegistration(String externalId) {
+        Map<String, Object> params = registrationStore.get(externalId);
+        if (params == null && externalIdCodec.isEnabled()) {
+            params = externalIdCodec.decode(externalId);
+        }
+        return params;
+    }
+    
     /**
      * Map chain ID to network name
      */
@@ -0,0 +1,68 @@
+package com.wanel.mocking.kyx.server.app.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.service.FaultInjectionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admin endpoints changing the injected faults of a running server
+ */
+@RestController
+@Slf4j
+@ConditionalOnProperty(name = "kyx.faults.enabled", havingValue = "true", matchIfMissing = true)
+public class FaultInjectionController {
+
+    private final FaultInjectionService faultInjectionService;
+
+    @Autowired
+    public FaultInjectionController(FaultInjectionService faultInjectionService) {
+        this.faultInjectionService = faultInjectionService;
+    }
+
+    /**
+     * Rules in force
+     * GET /admin/faults
+     */
+    @GetMapping("/admin/faults")
+    public ResponseEntity<List<KyxConfiguration.FaultRule>> getRules() {
+        return ResponseEntity.ok(faultInjectionService.getRules());
+    }
+
+    /**
+     * Replace the rules in force, in priority order
+     * PUT /admin/faults
+     */
+    @PutMapping("/admin/faults")
+    public ResponseEntity<Object> setRules(@RequestBody List<KyxConfiguration.FaultRule> rules) {
+        log.info("Received {} fault rules", rules.size());
+        try {
+            faultInjectionService.setRules(rules);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("code", 400, "message", e.getMessage()));
+        }
+        return ResponseEntity.ok(faultInjectionService.getRules());
+    }
+
+    /**
+     * Stop injecting faults
+     * DELETE /admin/faults
+     */
+    @DeleteMapping("/admin/faults")
+    public ResponseEntity<Void> clearRules() {
+        faultInjectionService.setRules(List.of());
+        return ResponseEntity.noContent().build();
+    }
+}
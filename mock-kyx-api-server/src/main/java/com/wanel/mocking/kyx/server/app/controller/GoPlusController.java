@@ -1,25 +1,49 @@
 package com.wanel.mocking.kyx.server.app.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.wanel.mocking.kyx.server.apis.KyxProviderApi;
+import com.wanel.mocking.kyx.server.app.error.BatchTooLargeException;
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
 import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusBatchAddressRequest;
 import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
 import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
 
 import jakarta.validation.Valid;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller for GoPlus API endpoints
@@ -29,11 +53,25 @@ import java.util.Map;
 @ConditionalOnProperty(name = "kyx.providers[0].enabled", havingValue = "true")
 public class GoPlusController implements KyxProviderApi {
 
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
     private final RiskCheckService riskCheckService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${goplus.batch.max-addresses:100000}")
+    @Setter
+    private int batchMaxAddresses;
+
+    @Value("${goplus.batch.chunk-size:1000}")
+    @Setter
+    private int batchChunkSize;
 
     @Autowired
-    public GoPlusController(RiskCheckService riskCheckService) {
+    public GoPlusController(RiskCheckService riskCheckService, ObjectMapper objectMapper) {
         this.riskCheckService = riskCheckService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,7 +80,7 @@ public class GoPlusController implements KyxProviderApi {
      */
     @Override
     public ResponseEntity<?> checkTransaction(@Valid @RequestBody TransactionCheckRequest request) {
-        log.info("Received transaction check request through interface method: {}", request);
+        log.debug("Received transaction check request through interface method: {}", request);
         
         // This is not a real GoPlus endpoint, but we implement it to satisfy the interface
         Map<String, Object> response = new HashMap<>();
@@ -57,7 +95,7 @@ public class GoPlusController implements KyxProviderApi {
      */
     @GetMapping("/address/{address}")
     public ResponseEntity<GoPlusRiskEoaAddressResponse> checkAddress(@PathVariable String address) {
-        log.info("Received GoPlus address check request for address: {}", address);
+        log.debug("Received GoPlus address check request for address: {}", address);
         
         // Create a request with the address as targetAddress
         Map<String, Object> params = new HashMap<>();
@@ -67,47 +105,189 @@ public class GoPlusController implements KyxProviderApi {
         RiskCheckResult result = riskCheckService.checkRisk(params);
         
         // Build the GoPlus response format
-        GoPlusRiskEoaAddressResponse.Result resultData = GoPlusRiskEoaAddressResponse.Result.builder()
-                .build();
+        GoPlusRiskEoaAddressResponse.Result resultData = toGoPlusResult(result);
         
-        if (result.isInRisk()) {
-            // Set one of the risk indicators based on the detail
-            if (result.getRiskDetail().contains("money laundry")) {
-                resultData.setMoney_laundering("1");
-            } else {
-                resultData.setCybercrime("1");
-            }
-            
-            // Set data source
-            resultData.setData_source("Mock KYX Server");
-        } else {
-            // No risk - set all values to "0"
-            resultData.setCybercrime("0");
-            resultData.setMoney_laundering("0");
-            resultData.setNumber_of_malicious_contracts_created("0");
-            resultData.setGas_abuse("0");
-            resultData.setFinancial_crime("0");
-            resultData.setDarkweb_transactions("0");
-            resultData.setReinit("0");
-            resultData.setPhishing_activities("0");
-            resultData.setFake_kyc("0");
-            resultData.setBlacklist_doubt("0");
-            resultData.setFake_standard_interface("0");
-            resultData.setStealing_attack("0");
-            resultData.setBlackmail_activities("0");
-            resultData.setSanctioned("0");
-            resultData.setMalicious_mining_activities("0");
-            resultData.setMixer("0");
-            resultData.setHoneypot_related_address("0");
-            resultData.setData_source("Mock KYX Server");
-        }
-        
-        GoPlusRiskEoaAddressResponse response = GoPlusRiskEoaAddressResponse.builder()
+        return ResponseEntity.ok(okResponse(resultData));
+    }
+    
+    /**
+     * Successful GoPlus response wrapping the risk indicators of an address
+     */
+    public static GoPlusRiskEoaAddressResponse okResponse(GoPlusRiskEoaAddressResponse.Result resultData) {
+        return GoPlusRiskEoaAddressResponse.builder()
                 .code(1) // 1 = success
                 .message("ok")
                 .result(resultData)
                 .build();
+    }
+
+    /**
+     * Check many addresses on one chain, GoPlus multi-address query style
+     * GET /address?address=0x1,0x2,0x3&chain_id=1
+     * The result maps each address to its risk indicators.
+     */
+    @GetMapping("/address")
+    public ResponseEntity<StreamingResponseBody> checkAddresses(@RequestParam("address") String addresses,
+                                                                @RequestParam(value = "chain_id", required = false) String chainId,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Set<String> addressSet = new LinkedHashSet<>(Arrays.asList(addresses.split(",")));
+        addressSet.remove("");
+        log.debug("Received GoPlus batch address check request for {} addresses on chain {}", addressSet.size(), chainId);
+        checkBatchSize(addressSet.size());
         
-        return ResponseEntity.ok(response);
+        MediaType format = batchFormat(accept);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = startBatchResponse(out, format);
+            writeAddressResults(generator, chainId, addressSet);
+            finishBatchResponse(generator);
+        };
+        return ResponseEntity.ok().contentType(format).body(body);
+    }
+    
+    /**
+     * Check many addresses across chains
+     * POST /address/batch with body {"addresses": {"1": ["0x1", "0x2"], "56": ["0x3"]}}
+     * The result maps each chain id to a map of address to risk indicators.
+     */
+    @PostMapping("/address/batch")
+    public ResponseEntity<StreamingResponseBody> checkAddressesBatch(@Valid @RequestBody GoPlusBatchAddressRequest request,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Map<String, Set<String>> addressesByChain = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<String, List<String>> entry : request.getAddresses().entrySet()) {
+            Set<String> addressSet = new LinkedHashSet<>(entry.getValue());
+            addressSet.remove(null);
+            addressSet.remove("");
+            addressesByChain.put(entry.getKey(), addressSet);
+            total += addressSet.size();
+        }
+        log.debug("Received GoPlus batch address check request for {} addresses on {} chains", total, addressesByChain.size());
+        checkBatchSize(total);
+        
+        MediaType format = batchFormat(accept);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = startBatchResponse(out, format);
+            for (Map.Entry<String, Set<String>> entry : addressesByChain.entrySet()) {
+                generator.writeObjectFieldStart(entry.getKey());
+                writeAddressResults(generator, entry.getKey(), entry.getValue());
+                generator.writeEndObject();
+            }
+            finishBatchResponse(generator);
+        };
+        return ResponseEntity.ok().contentType(format).body(body);
+    }
+    
+    private void checkBatchSize(int count) {
+        if (count > batchMaxAddresses) {
+            throw new BatchTooLargeException("Too many addresses: " + count + ", at most " + batchMaxAddresses + " per request");
+        }
+    }
+    
+    /**
+     * Streamed responses bypass the message converters, so Smile / CBOR are negotiated here
+     */
+    private static MediaType batchFormat(String accept) {
+        if (accept != null) {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+                    return APPLICATION_SMILE;
+                }
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    return MediaType.APPLICATION_CBOR;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return MediaType.APPLICATION_JSON;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+    
+    private JsonGenerator startBatchResponse(OutputStream out, MediaType format) throws IOException {
+        JsonFactory factory = APPLICATION_SMILE.equals(format) ? SMILE_FACTORY
+                : MediaType.APPLICATION_CBOR.equals(format) ? CBOR_FACTORY
+                : objectMapper.getFactory();
+        JsonGenerator generator = factory.createGenerator(out);
+        generator.setCodec(objectMapper);
+        generator.writeStartObject();
+        generator.writeNumberField("code", 1); // 1 = success
+        generator.writeStringField("message", "ok");
+        generator.writeObjectFieldStart("result");
+        return generator;
+    }
+    
+    private void finishBatchResponse(JsonGenerator generator) throws IOException {
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+    
+    /**
+     * Evaluate addresses chunk by chunk, writing and flushing each chunk's results
+     * so memory stays bounded and the client sees results as they are produced
+     */
+    private void writeAddressResults(JsonGenerator generator, String chainId, Set<String> addresses) throws IOException {
+        Integer numericChainId = parseChainId(chainId);
+        List<String> chunk = new ArrayList<>(Math.min(batchChunkSize, addresses.size()));
+        List<Map<String, Object>> paramsList = new ArrayList<>(chunk.size());
+        for (String address : addresses) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("targetAddress", address);
+            if (numericChainId != null) {
+                params.put("chainId", numericChainId);
+            }
+            chunk.add(address);
+            paramsList.add(params);
+            if (chunk.size() == batchChunkSize) {
+                writeChunk(generator, chunk, paramsList);
+            }
+        }
+        writeChunk(generator, chunk, paramsList);
+    }
+    
+    private void writeChunk(JsonGenerator generator, List<String> chunk, List<Map<String, Object>> paramsList) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<RiskCheckResult> results = riskCheckService.checkRisk(paramsList);
+        for (int i = 0; i < chunk.size(); i++) {
+            generator.writeFieldName(chunk.get(i));
+            generator.writeObject(toGoPlusResult(results.get(i)));
+        }
+        generator.flush();
+        chunk.clear();
+        paramsList.clear();
+    }
+    
+    private static Integer parseChainId(String chainId) {
+        if (chainId == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(chainId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Map a risk check result to the GoPlus risk indicators
+     */
+    private GoPlusRiskEoaAddressResponse.Result toGoPlusResult(RiskCheckResult result) {
+        return GoPlusRiskEoaAddressResponse.Result.builder()
+                .categories(result.getCategories())
+                .data_source("Mock KYX Server")
+                .build();
+    }
+    
+    /**
+     * Risk indicators of a clean address: all values "0"
+     */
+    public static GoPlusRiskEoaAddressResponse.Result noRiskResult() {
+        return GoPlusRiskEoaAddressResponse.Result.builder()
+                .data_source("Mock KYX Server")
+                .build();
     }
-} 
\ No newline at end of file
+}
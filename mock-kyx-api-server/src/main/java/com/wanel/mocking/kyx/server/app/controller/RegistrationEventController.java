@@ -0,0 +1,67 @@
+package com.wanel.mocking.kyx.server.app.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events stream of Chainalysis registration readiness and alerts,
+ * so that clients don't have to poll the status and alerts endpoints
+ */
+@RestController
+@Slf4j
+@ConditionalOnProperty(name = "kyx.providers[1].enabled", havingValue = "true")
+public class RegistrationEventController {
+
+    private final RegistrationEventService registrationEventService;
+
+    // Connections are closed after this time, SSE clients reconnect on their own
+    @Value("${chainalysis.events.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Autowired
+    public RegistrationEventController(RegistrationEventService registrationEventService) {
+        this.registrationEventService = registrationEventService;
+    }
+
+    /**
+     * Watch registrations, optionally only those of one user or one externalId
+     * GET /api/kyt/v2/events?userId={userId}&externalId={externalId}
+     */
+    @GetMapping(value = "/api/kyt/v2/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watchRegistrations(
+            @RequestParam(name = "userId", required = false) String userId,
+            @RequestParam(name = "externalId", required = false) String externalId) {
+        log.info("New registration watcher for userId: {}, externalId: {}", userId, externalId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        RegistrationEventService.Subscription subscription = registrationEventService.subscribe(userId, externalId,
+                new RegistrationEventService.EventSink() {
+                    @Override
+                    public void send(CARegistrationEvent event) throws IOException {
+                        emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+}
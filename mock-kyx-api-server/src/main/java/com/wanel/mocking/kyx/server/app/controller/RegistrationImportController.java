@@ -0,0 +1,53 @@
+package com.wanel.mocking.kyx.server.app.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAImportProgress;
+import com.wanel.mocking.kyx.server.core.service.BulkImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admin endpoints preloading Chainalysis registrations for soak tests
+ */
+@RestController
+@Slf4j
+@ConditionalOnProperty(name = "kyx.providers[1].enabled", havingValue = "true")
+public class RegistrationImportController {
+
+    private final BulkImportService bulkImportService;
+
+    @Autowired
+    public RegistrationImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    /**
+     * Import registrations from an NDJSON body, one CAImportRecord per line.
+     * The body is read as it arrives, so it may be arbitrarily large.
+     * POST /admin/registrations/import
+     */
+    @PostMapping("/admin/registrations/import")
+    public ResponseEntity<CAImportProgress> importRegistrations(HttpServletRequest request) throws IOException {
+        log.info("Received registration import request, content type: {}", request.getContentType());
+        return ResponseEntity.ok(bulkImportService.importRegistrations(request.getInputStream()));
+    }
+
+    /**
+     * Progress of running and recently finished imports
+     * GET /admin/registrations/imports
+     */
+    @GetMapping("/admin/registrations/imports")
+    public ResponseEntity<List<CAImportProgress>> importProgress() {
+        return ResponseEntity.ok(bulkImportService.progress());
+    }
+}
@@ -0,0 +1,53 @@
+package com.wanel.mocking.kyx.server.app.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wanel.mocking.kyx.server.core.cluster.RegistrationChange;
+import com.wanel.mocking.kyx.server.core.service.impl.ReplicatedRegistrationStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Internal endpoints used by peer instances to replicate the registration store
+ */
+@RestController
+@Slf4j
+@ConditionalOnProperty(name = "kyx.replication.enabled", havingValue = "true")
+public class ReplicationController {
+
+    private final ReplicatedRegistrationStore registrationStore;
+
+    @Autowired
+    public ReplicationController(ReplicatedRegistrationStore registrationStore) {
+        this.registrationStore = registrationStore;
+    }
+
+    /**
+     * Receive a batch of registrations written on a peer
+     */
+    @PostMapping(ReplicatedRegistrationStore.REPLICATION_PATH)
+    public ResponseEntity<Void> applyChanges(@RequestBody List<RegistrationChange> changes) {
+        log.debug("Applying {} replicated registrations", changes.size());
+        registrationStore.applyReplicated(changes);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Answer a read forwarded by a peer, from this instance's copy only
+     */
+    @GetMapping(ReplicatedRegistrationStore.REPLICATION_PATH + "/{externalId}")
+    public ResponseEntity<Map<String, Object>> getRegistration(@PathVariable("externalId") String externalId) {
+        Map<String, Object> params = registrationStore.getLocal(externalId);
+        return params != null ? ResponseEntity.ok(params) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.wanel.mocking.kyx.server.app.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAWebhookRegistration;
+import com.wanel.mocking.kyx.server.core.service.WebhookService;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Management of the callback urls Chainalysis alerts are pushed to
+ */
+@RestController
+@Slf4j
+@ConditionalOnProperty(name = "kyx.providers[1].enabled", havingValue = "true")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    @Autowired
+    public WebhookController(WebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+
+    /**
+     * Register a callback url
+     * POST /api/kyt/v2/webhooks
+     */
+    @PostMapping("/api/kyt/v2/webhooks")
+    public ResponseEntity<CAWebhookRegistration> registerWebhook(@Valid @RequestBody CAWebhookRegistration request) {
+        log.info("Received webhook register request: {}", request);
+        return ResponseEntity.ok(webhookService.register(request.getUrl(), request.getUserId()));
+    }
+
+    /**
+     * List registered callback urls
+     * GET /api/kyt/v2/webhooks
+     */
+    @GetMapping("/api/kyt/v2/webhooks")
+    public ResponseEntity<List<CAWebhookRegistration>> listWebhooks() {
+        return ResponseEntity.ok(webhookService.list());
+    }
+
+    /**
+     * Unregister a callback url
+     * DELETE /api/kyt/v2/webhooks/{id}
+     */
+    @DeleteMapping("/api/kyt/v2/webhooks/{id}")
+    public ResponseEntity<Void> unregisterWebhook(@PathVariable("id") String id) {
+        log.info("Received webhook unregister request for id: {}", id);
+        return webhookService.unregister(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
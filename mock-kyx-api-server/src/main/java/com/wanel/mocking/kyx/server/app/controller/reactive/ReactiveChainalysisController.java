@@ -0,0 +1,188 @@
+package com.wanel.mocking.kyx.server.app.controller.reactive;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.wanel.mocking.kyx.server.app.controller.ChainalysisController;
+import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertMonitorResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAScreeningResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAUserRegistrationsResponse;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Chainalysis API endpoints in reactive mode, delegating to {@link ChainalysisController}.
+ * Registrations only touch memory and run on the event loop; status lookups first load the
+ * registration without blocking, since with replication it may come from a peer; alerts,
+ * which evaluate the script, run on the script scheduler. Long-polls wait on the timer.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "kyx.providers[1].enabled", havingValue = "true")
+public class ReactiveChainalysisController {
+
+    private final ChainalysisController chainalysisController;
+    private final Scheduler scriptScheduler;
+
+    @Autowired
+    public ReactiveChainalysisController(ChainalysisController chainalysisController,
+                                         @Qualifier("scriptScheduler") Scheduler scriptScheduler) {
+        this.chainalysisController = chainalysisController;
+        this.scriptScheduler = scriptScheduler;
+    }
+
+    @PostMapping("/check")
+    public Mono<ResponseEntity<?>> checkTransaction(@Valid @RequestBody TransactionCheckRequest request) {
+        return evaluate(() -> chainalysisController.checkTransaction(request));
+    }
+
+    @PostMapping("/api/kyt/v2/users/{userId}/withdrawal-attempts")
+    public ResponseEntity<CAKyaRegisterResponse> registerKya(@PathVariable("userId") String userId,
+                                                             @Valid @RequestBody CAKyaRequest request) {
+        return chainalysisController.registerKya(userId, request);
+    }
+
+    @GetMapping("/api/kyt/v2/withdrawal-attempts/{externalId}")
+    public Mono<ResponseEntity<CAKyaRegisterResponse>> checkKyaRegistration(@PathVariable("externalId") String externalId) {
+        return load(externalId)
+                .then(Mono.fromSupplier(() -> chainalysisController.checkKyaRegistration(externalId)));
+    }
+
+    @GetMapping(value = "/api/kyt/v2/withdrawal-attempts/{externalId}", params = "waitMs")
+    public Mono<ResponseEntity<CAKyaRegisterResponse>> waitKyaRegistration(@PathVariable("externalId") String externalId,
+                                                                           @RequestParam("waitMs") long waitMs) {
+        return load(externalId)
+                .then(readyOrTimeout(externalId, waitMs))
+                .then(load(externalId))
+                .then(Mono.fromSupplier(() -> chainalysisController.checkKyaRegistration(externalId)));
+    }
+
+    @GetMapping("/api/kyt/v2/withdrawal-attempts/{externalId}/alerts")
+    public Mono<ResponseEntity<CAKyXAlertResponse>> getKyaAlerts(@PathVariable("externalId") String externalId) {
+        return evaluate(() -> chainalysisController.getKyaAlerts(externalId));
+    }
+
+    @PostMapping("/api/kyt/v2/users/{userId}/transfers")
+    public ResponseEntity<CAKytRegisterResponse> registerKyt(@PathVariable("userId") String userId,
+                                                             @Valid @RequestBody CAKytRequest request) {
+        return chainalysisController.registerKyt(userId, request);
+    }
+
+    @GetMapping("/api/kyt/v2/transfers/{externalId}")
+    public Mono<ResponseEntity<CAKytRegisterResponse>> checkKytRegistration(@PathVariable("externalId") String externalId) {
+        return load(externalId)
+                .then(Mono.fromSupplier(() -> chainalysisController.checkKytRegistration(externalId)));
+    }
+
+    @GetMapping(value = "/api/kyt/v2/transfers/{externalId}", params = "waitMs")
+    public Mono<ResponseEntity<CAKytRegisterResponse>> waitKytRegistration(@PathVariable("externalId") String externalId,
+                                                                           @RequestParam("waitMs") long waitMs) {
+        return load(externalId)
+                .then(readyOrTimeout(externalId, waitMs))
+                .then(load(externalId))
+                .then(Mono.fromSupplier(() -> chainalysisController.checkKytRegistration(externalId)));
+    }
+
+    @GetMapping("/api/kyt/v2/transfers/{externalId}/alerts")
+    public Mono<ResponseEntity<CAKyXAlertResponse>> getKytAlerts(@PathVariable("externalId") String externalId) {
+        return evaluate(() -> chainalysisController.getKytAlerts(externalId));
+    }
+
+    @PostMapping("/api/kyt/v2/users/{userId}/withdrawal-attempts/screen")
+    public Mono<ResponseEntity<CAScreeningResponse<CAKyaRegisterResponse>>> screenKya(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "fast", defaultValue = "false") boolean fast,
+            @Valid @RequestBody CAKyaRequest request) {
+        CAKyaRegisterResponse original = chainalysisController.registerKya(userId, request).getBody();
+        return readyOrTimeout(original.getExternalId(), fast ? 0 : Long.MAX_VALUE)
+                .then(evaluate(() -> chainalysisController.kyaScreeningResult(original)));
+    }
+
+    @PostMapping("/api/kyt/v2/users/{userId}/transfers/screen")
+    public Mono<ResponseEntity<CAScreeningResponse<CAKytRegisterResponse>>> screenKyt(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "fast", defaultValue = "false") boolean fast,
+            @Valid @RequestBody CAKytRequest request) {
+        CAKytRegisterResponse original = chainalysisController.registerKyt(userId, request).getBody();
+        return readyOrTimeout(original.getExternalId(), fast ? 0 : Long.MAX_VALUE)
+                .then(evaluate(() -> chainalysisController.kytScreeningResult(original)));
+    }
+
+    @GetMapping("/api/kyt/v1/alerts")
+    public Mono<ResponseEntity<CAKyXAlertMonitorResponse>> monitorAlerts(
+            @RequestParam(name = "createdAt_lte", required = false) String endTime,
+            @RequestParam(name = "createdAt_gte", required = false) String startTime,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "offset", defaultValue = "0") int offset) {
+        return evaluate(() -> chainalysisController.monitorAlerts(endTime, startTime, limit, offset));
+    }
+
+    @GetMapping("/api/kyt/v2/users/{userId}/registrations")
+    public ResponseEntity<CAUserRegistrationsResponse> listUserRegistrations(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "offset", defaultValue = "0") int offset) {
+        return chainalysisController.listUserRegistrations(userId, limit, offset);
+    }
+
+    @GetMapping("/api/kyt/v2/users/{userId}/alerts")
+    public Mono<ResponseEntity<CAKyXAlertMonitorResponse>> monitorUserAlerts(
+            @PathVariable("userId") String userId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @RequestParam(name = "offset", defaultValue = "0") int offset) {
+        return evaluate(() -> chainalysisController.monitorUserAlerts(userId, limit, offset));
+    }
+
+    @GetMapping("/api/kyt/v2/users/registration-counts")
+    public ResponseEntity<Map<String, Object>> userRegistrationCounts() {
+        return chainalysisController.userRegistrationCounts();
+    }
+
+    /**
+     * Run a handler evaluating the script on the script scheduler
+     */
+    private <T> Mono<T> evaluate(Callable<T> handler) {
+        return Mono.fromCallable(handler).subscribeOn(scriptScheduler);
+    }
+
+    /**
+     * Completes once the registration is available on this instance, or known to be missing
+     */
+    private Mono<Void> load(String externalId) {
+        return Mono.fromFuture(() -> chainalysisController.loadRegistration(externalId)).then();
+    }
+
+    /**
+     * Completes once the registration is ready or waitMs has passed, no thread is held meanwhile.
+     * Looks the registration up right away, so it must have been loaded first
+     */
+    private Mono<Void> readyOrTimeout(String externalId, long waitMs) {
+        return Mono.create(sink -> {
+            TimerService.Cancellable timer = chainalysisController.whenReady(externalId, waitMs, sink::success);
+            if (timer != null) {
+                sink.onCancel(timer::cancel);
+            }
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.wanel.mocking.kyx.server.app.controller.reactive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusBatchAddressRequest;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * GoPlus API endpoints in reactive mode, delegating to {@link GoPlusController}.
+ * Script evaluation runs on the script scheduler, never on the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "kyx.providers[0].enabled", havingValue = "true")
+public class ReactiveGoPlusController {
+
+    private final GoPlusController goPlusController;
+    private final Scheduler scriptScheduler;
+
+    @Autowired
+    public ReactiveGoPlusController(GoPlusController goPlusController,
+                                    @Qualifier("scriptScheduler") Scheduler scriptScheduler) {
+        this.goPlusController = goPlusController;
+        this.scriptScheduler = scriptScheduler;
+    }
+
+    /**
+     * GET /address/{address}
+     */
+    @GetMapping("/address/{address}")
+    public Mono<ResponseEntity<GoPlusRiskEoaAddressResponse>> checkAddress(@PathVariable String address) {
+        return Mono.fromCallable(() -> goPlusController.checkAddress(address)).subscribeOn(scriptScheduler);
+    }
+
+    /**
+     * GET /address?address=0x1,0x2,0x3&chain_id=1
+     */
+    @GetMapping("/address")
+    public ResponseEntity<Flux<DataBuffer>> checkAddresses(@RequestParam("address") String addresses,
+                                                           @RequestParam(value = "chain_id", required = false) String chainId,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return streamed(goPlusController.checkAddresses(addresses, chainId, accept));
+    }
+
+    /**
+     * POST /address/batch
+     */
+    @PostMapping("/address/batch")
+    public ResponseEntity<Flux<DataBuffer>> checkAddressesBatch(@Valid @RequestBody GoPlusBatchAddressRequest request,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return streamed(goPlusController.checkAddressesBatch(request, accept));
+    }
+
+    /**
+     * Write a streamed batch response from the script scheduler, each flushed chunk becoming a buffer
+     */
+    private ResponseEntity<Flux<DataBuffer>> streamed(ResponseEntity<StreamingResponseBody> response) {
+        StreamingResponseBody body = response.getBody();
+        Flux<DataBuffer> buffers = Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                body.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DefaultDataBufferFactory.sharedInstance, scriptScheduler::schedule));
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(buffers);
+    }
+}
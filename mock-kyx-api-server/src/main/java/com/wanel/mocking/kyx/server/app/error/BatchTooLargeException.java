@@ -0,0 +1,11 @@
+package com.wanel.mocking.kyx.server.app.error;
+
+/**
+ * Thrown when a batch request holds more items than allowed
+ */
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,19 @@
 package com.wanel.mocking.kyx.server.app.error;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,8 +23,20 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        return validationError(ex.getBindingResult());
+    }
+    
+    /**
+     * Validation errors of request bodies in reactive mode
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        return validationError(ex.getBindingResult());
+    }
+    
+    private ResponseEntity<Object> validationError(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
+        bindingResult.getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -35,6 +52,79 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<Object> handleQuotaExceeded(QuotaExceededException ex) {
+        log.warn("Quota exceeded: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", 429);
+        response.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    /**
+     * Requests over a rate limit, answered the way each provider does: GoPlus with its own
+     * 4029 error code, Chainalysis with a bare 429; both say when to retry like polls for
+     * registrations not ready yet (Retry-After in whole seconds, X-Retry-After-Ms in milliseconds)
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException ex) {
+        long retryAfterMs = ex.getRetryAfterMs();
+        log.debug("Rate limit exceeded, retry after {} ms", retryAfterMs);
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        if ("goplus".equals(ex.getProvider())) {
+            response.put("code", 4029);
+            response.put("message", "request limit reached");
+            response.put("result", null);
+        } else {
+            response.put("code", 429);
+            response.put("message", "Too many requests");
+        }
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000))
+                .header("X-Retry-After-Ms", String.valueOf(retryAfterMs))
+                .body(response);
+    }
+    
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Object> handleBatchTooLarge(BatchTooLargeException ex) {
+        log.warn("Batch too large: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", 413);
+        response.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(response, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+    
+    @ExceptionHandler(InvalidWebhookUrlException.class)
+    public ResponseEntity<Object> handleInvalidWebhookUrl(InvalidWebhookUrlException ex) {
+        log.warn("Invalid webhook url: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", 400);
+        response.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Script evaluations queued beyond kyx.reactive.script-queue-size in reactive mode
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecution(RejectedExecutionException ex) {
+        log.warn("Rejected execution: {}", ex.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", 503);
+        response.put("message", "Server busy, retry later");
+        
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,11 @@
+package com.wanel.mocking.kyx.server.app.error;
+
+/**
+ * Thrown when a webhook is registered with a url alerts can't be POSTed to
+ */
+public class InvalidWebhookUrlException extends RuntimeException {
+
+    public InvalidWebhookUrlException(String message) {
+        super(message);
+    }
+}
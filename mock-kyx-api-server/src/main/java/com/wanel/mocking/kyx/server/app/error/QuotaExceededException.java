@@ -0,0 +1,11 @@
+package com.wanel.mocking.kyx.server.app.error;
+
+/**
+ * Thrown when a user exceeds one of its configured quotas
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
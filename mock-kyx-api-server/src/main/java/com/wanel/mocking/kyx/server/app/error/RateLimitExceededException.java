@@ -0,0 +1,27 @@
+package com.wanel.mocking.kyx.server.app.error;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request exceeds the rate limit of its user or API token. Thrown once per
+ * refused request, so it carries no stack trace.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /** Provider whose error format the response follows, "goplus" or "chainalysis" */
+    private final String provider;
+    private final long retryAfterNanos;
+
+    public RateLimitExceededException(String provider, long retryAfterNanos) {
+        super("Rate limit exceeded", null, false, false);
+        this.provider = provider;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public long getRetryAfterMs() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(retryAfterNanos + 999_999));
+    }
+}
@@ -0,0 +1,79 @@
+package com.wanel.mocking.kyx.server.bean;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Risk categories a check can report, one bit each in {@link RiskCheckResult#getCategories()},
+ * with their GoPlus flag name and Chainalysis alert category. Bits follow the GoPlus field order.
+ */
+@Getter
+public enum RiskCategory {
+    CYBERCRIME("cybercrime", "illicit_actor_org"),
+    MONEY_LAUNDERING("money_laundering", "money_laundering_fraud"),
+    NUMBER_OF_MALICIOUS_CONTRACTS_CREATED("number_of_malicious_contracts_created", "malware"),
+    GAS_ABUSE("gas_abuse", "scam"),
+    FINANCIAL_CRIME("financial_crime", "fraud_shop"),
+    DARKWEB_TRANSACTIONS("darkweb_transactions", "darknet_market"),
+    REINIT("reinit", "malware"),
+    PHISHING_ACTIVITIES("phishing_activities", "scam"),
+    FAKE_KYC("fake_kyc", "fraud_shop"),
+    BLACKLIST_DOUBT("blacklist_doubt", "special_measures"),
+    FAKE_STANDARD_INTERFACE("fake_standard_interface", "scam"),
+    STEALING_ATTACK("stealing_attack", "stolen_funds"),
+    BLACKMAIL_ACTIVITIES("blackmail_activities", "ransomware"),
+    SANCTIONED("sanctioned", "sanctions"),
+    MALICIOUS_MINING_ACTIVITIES("malicious_mining_activities", "malware"),
+    MIXER("mixer", "mixing"),
+    HONEYPOT_RELATED_ADDRESS("honeypot_related_address", "scam");
+
+    private static final RiskCategory[] BY_BIT = values();
+    public static final int COUNT = BY_BIT.length;
+    private static final Map<String, RiskCategory> BY_NAME = new HashMap<>();
+
+    static {
+        for (RiskCategory category : BY_BIT) {
+            BY_NAME.put(category.goPlusFlag, category);
+        }
+    }
+
+    private final String goPlusFlag;
+    private final String chainalysisCategory;
+
+    RiskCategory(String goPlusFlag, String chainalysisCategory) {
+        this.goPlusFlag = goPlusFlag;
+        this.chainalysisCategory = chainalysisCategory;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public boolean in(long categories) {
+        return (categories & bit()) != 0;
+    }
+
+    /**
+     * @param index Index of a set bit, as given by Long.numberOfTrailingZeros
+     */
+    public static RiskCategory ofBit(int index) {
+        return BY_BIT[index];
+    }
+
+    /**
+     * Category of a GoPlus flag name, case-insensitive, null if unknown
+     */
+    public static RiskCategory forName(String name) {
+        return BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Category of a check that only gave a risk detail, as the endpoints have always read it
+     */
+    public static RiskCategory fromDetail(String riskDetail) {
+        return riskDetail != null && riskDetail.contains("money laundry") ? MONEY_LAUNDERING : CYBERCRIME;
+    }
+}
@@ -16,6 +16,18 @@ public class RiskCheckResult {
 
     private boolean inRisk;
     private String riskDetail;
+    /** Bitmask of {@link RiskCategory} bits */
+    private long categories;
     
     // Additional properties might be needed based on actual provider responses
-} 
\ No newline at end of file
+    
+    /**
+     * Categories of the result; a result in risk that came without any gets the one its detail suggests
+     */
+    public long getCategories() {
+        if (categories == 0 && inRisk) {
+            return RiskCategory.fromDetail(riskDetail).bit();
+        }
+        return categories;
+    }
+} 
@@ -0,0 +1,46 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a bulk registration import
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CAImportProgress {
+    private String id;
+    private String startedAt;
+    private boolean finished;
+
+    /**
+     * Lines read from the stream so far
+     */
+    private long read;
+
+    /**
+     * Registrations stored so far
+     */
+    private long imported;
+
+    /**
+     * Registrations whose verdict was evaluated by the script
+     */
+    private long evaluated;
+
+    /**
+     * Registrations flagged as risky
+     */
+    private long risky;
+
+    /**
+     * Lines that couldn't be parsed
+     */
+    private long failed;
+
+    private long elapsedMs;
+}
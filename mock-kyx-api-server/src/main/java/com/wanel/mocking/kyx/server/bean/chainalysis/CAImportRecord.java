@@ -0,0 +1,48 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk registration import. Address fields follow the KYA or KYT
+ * register request depending on requestType.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CAImportRecord {
+
+    /**
+     * "kya" or "kyt"
+     */
+    private String requestType;
+    private String userId;
+
+    /**
+     * Generated if not set
+     */
+    private String externalId;
+
+    private String targetAddress;
+    private String fromAddress;
+    private String toAddress;
+    private String tokenName;
+    private Double tokenAmount;
+    private String txHash;
+    private Integer chainId;
+
+    /**
+     * Readiness delay from the time of import, 0 for ready right away.
+     * Drawn from the readiness profile if not set.
+     */
+    private Long delayMs;
+
+    /**
+     * Verdict returned for this registration, evaluated by the script if not set
+     */
+    private Boolean inRisk;
+    private String riskDetail;
+}
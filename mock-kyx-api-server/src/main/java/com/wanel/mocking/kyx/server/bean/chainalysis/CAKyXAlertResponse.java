@@ -9,6 +9,8 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
+
 /**
  * Response model for Chainalysis KYX alert
  */
@@ -17,9 +19,29 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class CAKyXAlertResponse {
+    private static final BigDecimal ALERT_AMOUNT = BigDecimal.valueOf(1000);
+
     @Builder.Default
     private List<Alert> alerts = new ArrayList<>();
 
+    /**
+     * One alert per category of a {@link RiskCategory} bitmask
+     */
+    public static List<Alert> alerts(long categories, String externalId) {
+        List<Alert> alerts = new ArrayList<>(Long.bitCount(categories));
+        for (long remaining = categories; remaining != 0; remaining &= remaining - 1) {
+            alerts.add(Alert.builder()
+                    .alertLevel("HIGH")
+                    .category(RiskCategory.ofBit(Long.numberOfTrailingZeros(remaining)).getChainalysisCategory())
+                    .service("Mock KYX Server")
+                    .externalId(externalId)
+                    .alertAmount(ALERT_AMOUNT)
+                    .exposureType("DIRECT")
+                    .build());
+        }
+        return alerts;
+    }
+
     @Data
     @Builder
     @AllArgsConstructor
@@ -11,7 +11,7 @@ import java.math.BigDecimal;
  * Response model for Chainalysis KYA (Know Your Address) registration
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class CAKyaRegisterResponse {
@@ -12,7 +12,7 @@ import java.math.BigInteger;
  * Response model for Chainalysis KYT (Know Your Transaction) registration
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class CAKytRegisterResponse {
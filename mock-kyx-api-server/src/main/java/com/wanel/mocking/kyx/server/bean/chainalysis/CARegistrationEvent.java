@@ -0,0 +1,28 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event pushed to watchers of Chainalysis registrations
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CARegistrationEvent {
+    public static final String READY = "ready";
+    public static final String ALERT = "alert";
+
+    /**
+     * One of {@link #READY} or {@link #ALERT}
+     */
+    private String type;
+    private String externalId;
+    private String userId;
+    private String requestType;
+    private String updatedAt;
+    private CAKyXAlertResponse.Alert alert;
+}
@@ -0,0 +1,26 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response model for the composite register + status + alerts screening call
+ *
+ * @param <R> The KYA or KYT registration response
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CAScreeningResponse<R> {
+
+    private R registration;
+
+    @Builder.Default
+    private List<CAKyXAlertResponse.Alert> alerts = new ArrayList<>();
+}
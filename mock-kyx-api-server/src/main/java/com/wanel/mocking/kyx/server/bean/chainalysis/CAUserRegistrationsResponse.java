@@ -0,0 +1,41 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response model for listing the registrations of one user
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CAUserRegistrationsResponse {
+    private String userId;
+    private int limit;
+    private int offset;
+    private int total;
+    /**
+     * Max registrations this user may hold, 0 if unlimited
+     */
+    private long quota;
+    @Builder.Default
+    private List<Registration> data = new ArrayList<>();
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Registration {
+        private String externalId;
+        private String requestType;
+        private String createdAt;
+        private String updatedAt;
+        private String address;
+    }
+}
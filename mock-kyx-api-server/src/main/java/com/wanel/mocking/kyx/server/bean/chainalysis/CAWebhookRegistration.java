@@ -0,0 +1,29 @@
+package com.wanel.mocking.kyx.server.bean.chainalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * A callback url alerts are pushed to
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CAWebhookRegistration {
+    private String id;
+
+    @NotBlank(message = "url cannot be empty")
+    private String url;
+
+    /**
+     * Only push alerts of this user, null for all users
+     */
+    private String userId;
+
+    private String createdAt;
+}
@@ -0,0 +1,28 @@
+package com.wanel.mocking.kyx.server.bean.goplus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request model for checking many addresses at once
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoPlusBatchAddressRequest {
+
+    /**
+     * Chain id to the addresses to check on that chain
+     */
+    @NotEmpty(message = "addresses cannot be empty")
+    private Map<String, @NotNull(message = "addresses of a chain cannot be null") List<String>> addresses;
+}
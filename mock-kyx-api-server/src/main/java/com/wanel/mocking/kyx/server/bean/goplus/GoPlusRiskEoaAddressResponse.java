@@ -5,9 +5,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
 
 /**
  * Response model for GoPlus risk EOA address check
@@ -22,99 +29,74 @@ public class GoPlusRiskEoaAddressResponse {
     private String message;
     private Result result;
 
+    /**
+     * Risk indicators of an address, kept as a {@link RiskCategory} bitmask
+     * and written as one "0"/"1" flag per category
+     */
     @Data
     @Builder
     @AllArgsConstructor
     @NoArgsConstructor
+    @JsonSerialize(using = Result.Serializer.class)
     public static class Result {
-        private static final String IN_RISK = "1";
-        private String cybercrime;
-        private String money_laundering;
-        private String number_of_malicious_contracts_created;
-        private String gas_abuse;
-        private String financial_crime;
-        private String darkweb_transactions;
-        private String reinit;
-        private String phishing_activities;
-        private String fake_kyc;
-        private String blacklist_doubt;
-        private String fake_standard_interface;
+        private long categories;
         private String data_source;
-        private String stealing_attack;
-        private String blackmail_activities;
-        private String sanctioned;
-        private String malicious_mining_activities;
-        private String mixer;
-        private String honeypot_related_address;
 
         public List<String> riskItems() {
-            ArrayList<String> risks = new ArrayList<>();
-            if (IN_RISK.equals(cybercrime)) {
-                risks.add("cybercrime");
-            }
-            if (IN_RISK.equals(money_laundering)) {
-                risks.add("money_laundering");
-            }
-            if (IN_RISK.equals(number_of_malicious_contracts_created)) {
-                risks.add("number_of_malicious_contracts_created");
-            }
-            if (IN_RISK.equals(gas_abuse)) {
-                risks.add("gas_abuse");
-            }
-            if (IN_RISK.equals(financial_crime)) {
-                risks.add("financial_crime");
-            }
-            if (IN_RISK.equals(darkweb_transactions)) {
-                risks.add("darkweb_transactions");
-            }
-            if (IN_RISK.equals(reinit)) {
-                risks.add("reinit");
-            }
-            if (IN_RISK.equals(phishing_activities)) {
-                risks.add("phishing_activities");
-            }
-            if (IN_RISK.equals(fake_kyc)) {
-                risks.add("fake_kyc");
-            }
-            if (IN_RISK.equals(blacklist_doubt)) {
-                risks.add("blacklist_doubt");
-            }
-            if (IN_RISK.equals(fake_standard_interface)) {
-                risks.add("fake_standard_interface");
-            }
-            if (IN_RISK.equals(stealing_attack)) {
-                risks.add("stealing_attack");
-            }
-            if (IN_RISK.equals(blackmail_activities)) {
-                risks.add("blackmail_activities");
-            }
-            if (IN_RISK.equals(sanctioned)) {
-                risks.add("sanctioned");
-            }
-            if (IN_RISK.equals(malicious_mining_activities)) {
-                risks.add("malicious_mining_activities");
-            }
-            if (IN_RISK.equals(mixer)) {
-                risks.add("mixer");
-            }
-            if (IN_RISK.equals(honeypot_related_address)) {
-                risks.add("honeypot_related_address");
+            List<String> risks = new ArrayList<>(Long.bitCount(categories));
+            for (long remaining = categories; remaining != 0; remaining &= remaining - 1) {
+                risks.add(RiskCategory.ofBit(Long.numberOfTrailingZeros(remaining)).getGoPlusFlag());
             }
             return risks;
         }
 
         public boolean isInRisk() {
-            return !riskItems().isEmpty();
+            return categories != 0;
         }
 
         public String riskDetail() {
-            return String.join("\n", riskItems().stream()
-                    .filter(v -> v != null && !v.trim().isEmpty())
-                    .collect(Collectors.toList()));
+            return String.join("\n", riskItems());
+        }
+
+        /**
+         * Writes the flags straight from the bitmask, in GoPlus field order
+         */
+        public static class Serializer extends StdSerializer<Result> {
+
+            private static final SerializedString[] FLAGS = new SerializedString[RiskCategory.COUNT];
+            private static final SerializedString DATA_SOURCE = new SerializedString("data_source");
+            private static final SerializedString IN_RISK = new SerializedString("inRisk");
+
+            static {
+                for (int i = 0; i < RiskCategory.COUNT; i++) {
+                    FLAGS[i] = new SerializedString(RiskCategory.ofBit(i).getGoPlusFlag());
+                }
+            }
+
+            public Serializer() {
+                super(Result.class);
+            }
+
+            @Override
+            public void serialize(Result value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeStartObject(value);
+                for (int i = 0; i < RiskCategory.COUNT; i++) {
+                    generator.writeFieldName(FLAGS[i]);
+                    generator.writeString((value.categories & (1L << i)) != 0 ? "1" : "0");
+                    // GoPlus puts the data source among the flags
+                    if (i == RiskCategory.FAKE_STANDARD_INTERFACE.ordinal()) {
+                        generator.writeFieldName(DATA_SOURCE);
+                        generator.writeString(value.data_source);
+                    }
+                }
+                generator.writeFieldName(IN_RISK);
+                generator.writeBoolean(value.isInRisk());
+                generator.writeEndObject();
+            }
         }
     }
 
     public boolean isInRisk() {
         return code > 0 && result != null && result.isInRisk();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.wanel.mocking.kyx.server.core.cluster;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A registration written on one instance, propagated to its peers. Null params remove it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationChange {
+    private String externalId;
+    private Map<String, Object> params;
+}
@@ -0,0 +1,13 @@
+package com.wanel.mocking.kyx.server.core.fault;
+
+/**
+ * A fault to inject, with its response prepared when its rule was compiled
+ *
+ * @param type    How the request is answered
+ * @param status  Status of the response, if any
+ * @param body    Bytes written, already cut short for truncated faults
+ * @param contentLength Content-Length announced, larger than the body for truncated faults
+ * @param stallMs Time a stall holds the request before answering
+ */
+public record Fault(FaultType type, int status, byte[] body, int contentLength, long stallMs) {
+}
@@ -0,0 +1,156 @@
+package com.wanel.mocking.kyx.server.core.fault;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+
+/**
+ * Fault rules compiled for the request path: rules are grouped by route so a request looks
+ * up one array, each rule's response bytes are prepared once, and which of the matching
+ * requests fail is decided in advance by a shuffled table holding exactly the rule's rate,
+ * walked by a per-rule counter. An empty plan costs a request a single field read.
+ */
+public class FaultPlan {
+
+    /** Decisions per table; rates are exact over every this many matching requests */
+    static final int DECISIONS = 4096;
+
+    public static final FaultPlan EMPTY = new FaultPlan(Map.of(), new Rule[0]);
+
+    private final Map<String, Rule[]> byRoute;
+    private final Rule[] anyRoute;
+
+    private FaultPlan(Map<String, Rule[]> byRoute, Rule[] anyRoute) {
+        this.byRoute = byRoute;
+        this.anyRoute = anyRoute;
+    }
+
+    /**
+     * Compile rules, in priority order
+     *
+     * @param seed Seed of the decision tables, null for non-reproducible runs
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public static FaultPlan compile(List<KyxConfiguration.FaultRule> rules, Long seed) {
+        SplittableRandom random = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        List<Rule> compiled = new ArrayList<>();
+        for (KyxConfiguration.FaultRule rule : rules) {
+            if (rule.getRate() < 0 || rule.getRate() > 1) {
+                throw new IllegalArgumentException("Fault rate must be between 0 and 1: " + rule.getRate());
+            }
+            Rule compiledRule = new Rule(rule, fault(rule), random.split());
+            if (compiledRule.hits > 0) {
+                compiled.add(compiledRule);
+            }
+        }
+        if (compiled.isEmpty()) {
+            return EMPTY;
+        }
+        // Each route gets its own rules followed by the rules for any route, keeping the configured order
+        Map<String, List<Rule>> grouped = new HashMap<>();
+        List<Rule> anyRoute = new ArrayList<>();
+        for (Rule rule : compiled) {
+            if (rule.route == null) {
+                anyRoute.add(rule);
+                grouped.values().forEach(routeRules -> routeRules.add(rule));
+            } else {
+                grouped.computeIfAbsent(rule.route, route -> new ArrayList<>(anyRoute)).add(rule);
+            }
+        }
+        Map<String, Rule[]> byRoute = new HashMap<>();
+        grouped.forEach((route, routeRules) -> byRoute.put(route, routeRules.toArray(new Rule[0])));
+        return new FaultPlan(byRoute, anyRoute.toArray(new Rule[0]));
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Fault to inject in a request, null to serve it normally
+     *
+     * @param route Route pattern of the request, e.g. /address/{address}
+     * @param userId userId path variable of the request, null if none
+     */
+    public Fault decide(String route, String userId) {
+        Rule[] rules = byRoute.getOrDefault(route, anyRoute);
+        for (Rule rule : rules) {
+            if ((rule.userId == null || rule.userId.equals(userId)) && rule.fires()) {
+                return rule.fault;
+            }
+        }
+        return null;
+    }
+
+    private static Fault fault(KyxConfiguration.FaultRule rule) {
+        FaultType type = FaultType.forName(rule.getType());
+        int status = rule.getStatus();
+        if (status < 100 || status > 599) {
+            throw new IllegalArgumentException("Fault status must be an HTTP status: " + status);
+        }
+        byte[] body;
+        switch (type) {
+            case MALFORMED -> body = "{\"code\":1,\"message\":\"ok\",\"result\":{\"inRisk\":".getBytes(StandardCharsets.UTF_8);
+            case TRUNCATED -> {
+                byte[] full = "{\"code\":1,\"message\":\"ok\",\"result\":{\"inRisk\":false,\"data_source\":\"Mock KYX Server\"}}"
+                        .getBytes(StandardCharsets.UTF_8);
+                byte[] half = new byte[full.length / 2];
+                System.arraycopy(full, 0, half, 0, half.length);
+                return new Fault(type, 200, half, full.length, 0);
+            }
+            case RESET -> body = new byte[0];
+            default -> body = ("{\"code\":" + status + ",\"message\":\"Injected fault\"}").getBytes(StandardCharsets.UTF_8);
+        }
+        return new Fault(type, type == FaultType.MALFORMED ? 200 : status, body, body.length, Math.max(0, rule.getStallMs()));
+    }
+
+    private static final class Rule {
+        private final String route;
+        private final String userId;
+        private final Fault fault;
+        private final int hits;
+        private final long[] decisions;
+        private final AtomicLong counter = new AtomicLong();
+
+        Rule(KyxConfiguration.FaultRule rule, Fault fault, SplittableRandom random) {
+            this.route = blankToNull(rule.getRoute());
+            this.userId = blankToNull(rule.getUserId());
+            this.fault = fault;
+            this.hits = (int) Math.round(rule.getRate() * DECISIONS);
+            this.decisions = hits > 0 && hits < DECISIONS ? shuffled(hits, random) : null;
+        }
+
+        boolean fires() {
+            if (decisions == null) {
+                return true;
+            }
+            int n = (int) (counter.getAndIncrement() & (DECISIONS - 1));
+            return (decisions[n >>> 6] & (1L << n)) != 0;
+        }
+
+        /**
+         * Exactly hits bits set out of DECISIONS, at random positions (Floyd's sampling)
+         */
+        private static long[] shuffled(int hits, SplittableRandom random) {
+            long[] bits = new long[DECISIONS / 64];
+            for (int j = DECISIONS - hits; j < DECISIONS; j++) {
+                int n = random.nextInt(j + 1);
+                if ((bits[n >>> 6] & (1L << n)) != 0) {
+                    n = j;
+                }
+                bits[n >>> 6] |= 1L << n;
+            }
+            return bits;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.wanel.mocking.kyx.server.core.fault;
+
+import java.util.Locale;
+
+/**
+ * The ways an injected fault answers a request
+ */
+public enum FaultType {
+    /** An error status with a JSON error body */
+    STATUS,
+    /** 200 with a body that is not valid JSON */
+    MALFORMED,
+    /** 200 whose body stops halfway through its Content-Length, then the connection closes */
+    TRUNCATED,
+    /** The connection is closed without any response */
+    RESET,
+    /** Nothing for a while, then an error status, without holding a request thread meanwhile */
+    STALL;
+
+    /**
+     * Type named in configuration, e.g. "truncated"
+     */
+    public static FaultType forName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown fault type: " + name);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.wanel.mocking.kyx.server.core.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per key, held as the generic cell rate algorithm does: a bucket is the single
+ * time at which it will be full again, so taking a token is one compare-and-set and no bucket
+ * needs a refill timer. Buckets are spread over independent maps by key hash so that creating
+ * buckets for new keys never contends on one table, and nothing takes a lock once a key is known.
+ */
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int mask;
+    private final List<Map<String, AtomicLong>> stripes;
+
+    /**
+     * @param permitsPerSecond sustained rate each key may reach
+     * @param burst tokens a key may spend at once after being idle, at least 1
+     * @param stripes maps the buckets are spread over, rounded up to a power of two
+     */
+    public TokenBucketLimiter(double permitsPerSecond, long burst, int stripes) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.mask = size - 1;
+        List<Map<String, AtomicLong>> maps = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            maps.add(new ConcurrentHashMap<>());
+        }
+        this.stripes = List.copyOf(maps);
+    }
+
+    /**
+     * Take a token for the key
+     *
+     * @return 0 if the token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = bucket(key);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets that are full again, as they are equivalent to absent ones
+     *
+     * @return buckets dropped
+     */
+    public int removeIdle(long nowNanos) {
+        int removed = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            int before = stripe.size();
+            stripe.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+            removed += before - stripe.size();
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key) {
+        int hash = key.hashCode();
+        Map<String, AtomicLong> stripe = stripes.get((hash ^ (hash >>> 16)) & mask);
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            // Full since forever, whatever the sign of nanoTime
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE / 2));
+        }
+        return bucket;
+    }
+}
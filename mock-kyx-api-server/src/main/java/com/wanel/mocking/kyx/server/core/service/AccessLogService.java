@@ -0,0 +1,25 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+/**
+ * Service interface for the access log: requests are recorded on the request thread
+ * and written later by the log's own thread
+ */
+public interface AccessLogService {
+
+    /**
+     * Record a served request, if its route is sampled; never blocks
+     *
+     * @param method HTTP method
+     * @param route Route pattern, e.g. /address/{address}
+     * @param status Response status
+     * @param durationNanos Time taken to serve the request
+     * @param userId User of the request, null if none
+     * @param externalId Registration of the request, null if none
+     */
+    void record(String method, String route, int status, long durationNanos, String userId, String externalId);
+
+    /**
+     * Requests not logged because the buffer was full
+     */
+    long dropped();
+}
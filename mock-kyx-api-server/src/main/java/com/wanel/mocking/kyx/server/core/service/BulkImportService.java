@@ -0,0 +1,27 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAImportProgress;
+
+/**
+ * Service interface for preloading Chainalysis registrations from an NDJSON stream
+ */
+public interface BulkImportService {
+
+    /**
+     * Import registrations, one JSON record per line, returning once the stream is consumed
+     * and every registration is stored
+     *
+     * @param ndjson Stream of CAImportRecord lines
+     * @return Final progress of the import
+     */
+    CAImportProgress importRegistrations(InputStream ndjson) throws IOException;
+
+    /**
+     * @return Progress of running and recently finished imports
+     */
+    List<CAImportProgress> progress();
+}
@@ -0,0 +1,31 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.util.Map;
+
+/**
+ * Codec for self-describing externalIds, which carry the registration params
+ * themselves so that any instance can answer for them without shared state
+ */
+public interface ExternalIdCodec {
+
+    /**
+     * @return true if registrations should be handed out as self-describing tokens
+     */
+    boolean isEnabled();
+
+    /**
+     * Encode registration params into an authenticated externalId
+     *
+     * @param params Registration params
+     * @return The externalId token
+     */
+    String encode(Map<String, Object> params);
+
+    /**
+     * Decode an externalId produced by {@link #encode(Map)}
+     *
+     * @param externalId The externalId token
+     * @return The registration params, or null if the token is not valid, forged or expired
+     */
+    Map<String, Object> decode(String externalId);
+}
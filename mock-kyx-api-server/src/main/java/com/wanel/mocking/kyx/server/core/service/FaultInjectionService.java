@@ -0,0 +1,33 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.util.List;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.fault.Fault;
+
+/**
+ * Service interface for the faults injected in front of the provider routes
+ */
+public interface FaultInjectionService {
+
+    /**
+     * Fault to inject in a request; never blocks
+     *
+     * @param route Route pattern of the request, e.g. /address/{address}
+     * @param userId User of the request, null if none
+     * @return The fault, or null to serve the request normally
+     */
+    Fault decide(String route, String userId);
+
+    /**
+     * Rules in force, in priority order
+     */
+    List<KyxConfiguration.FaultRule> getRules();
+
+    /**
+     * Replace the rules in force
+     *
+     * @throws IllegalArgumentException if a rule is invalid, the rules in force are then kept
+     */
+    void setRules(List<KyxConfiguration.FaultRule> rules);
+}
@@ -0,0 +1,31 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+/**
+ * Index of registration responses by client-supplied idempotency key, so a retried
+ * registration gets back the original externalId instead of creating a new registration
+ */
+public interface IdempotencyIndex {
+
+    /**
+     * Get the response of an earlier registration with the same key
+     *
+     * @param key The idempotency key
+     * @return The original response, or null if unknown or expired
+     */
+    <T> T get(String key);
+
+    /**
+     * Record the response of a registration unless another one with the same key won the race
+     *
+     * @param key The idempotency key
+     * @param response The registration response
+     * @param expiresAt Epoch millis at which the registration, and so this entry, expires
+     * @return The response recorded earlier under this key, or null if this one was recorded
+     */
+    <T> T putIfAbsent(String key, T response, long expiresAt);
+
+    /**
+     * @return Number of indexed registrations
+     */
+    int size();
+}
@@ -0,0 +1,25 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
+
+/**
+ * Service interface for drawing simulated provider delays
+ */
+public interface LatencySimulationService {
+
+    /**
+     * Draw a readiness delay for a registration endpoint
+     *
+     * @param endpoint Endpoint key, e.g. "kya" or "kyt"
+     * @return The drawn delay together with the profile it came from
+     */
+    LatencySample sampleReadiness(String endpoint);
+
+    /**
+     * Draw a response delay for a provider route
+     *
+     * @param route Route pattern, e.g. /address/{address}
+     * @return The drawn delay together with the profile it came from, null if the route is not delayed
+     */
+    LatencySample sampleResponse(String route);
+}
@@ -1,5 +1,6 @@
 package com.wanel.mocking.kyx.server.core.service;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,4 +16,15 @@ public interface PythonScriptExecutor {
      * @return The result of the Python function execution
      */
     Map<String, Object> executeFunction(String functionName, Map<String, Object> params);
-} 
\ No newline at end of file
+
+    /**
+     * Execute a Python function for many parameter sets in one call.
+     * Uses the script's batch variant (function name + "Batch") when defined,
+     * otherwise calls the function once per parameter set.
+     *
+     * @param functionName The name of the Python function to execute
+     * @param paramsList The parameter sets to pass to the function
+     * @return One result per parameter set, in the same order
+     */
+    List<Map<String, Object>> executeFunctionBatch(String functionName, List<Map<String, Object>> paramsList);
+}
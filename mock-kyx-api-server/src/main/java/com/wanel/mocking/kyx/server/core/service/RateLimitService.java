@@ -0,0 +1,16 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+/**
+ * Service interface for the per-user and per-API-token request rate limits of the provider routes
+ */
+public interface RateLimitService {
+
+    /**
+     * Take a request from the quotas of the user and of the API token; never blocks
+     *
+     * @param userId User of the request, null if none
+     * @param token API token of the request, null if none
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would
+     */
+    long acquire(String userId, String token);
+}
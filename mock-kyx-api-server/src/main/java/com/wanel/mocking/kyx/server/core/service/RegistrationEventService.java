@@ -0,0 +1,47 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+
+/**
+ * Service interface for pushing registration readiness and alerts to watchers
+ */
+public interface RegistrationEventService {
+
+    /**
+     * Announce that a registration became ready. Watchers of it get a ready event,
+     * followed by an alert event if the risk check finds it risky.
+     *
+     * @param externalId The registration's externalId
+     * @param params The registration params
+     */
+    void registrationReady(String externalId, Map<String, Object> params);
+
+    /**
+     * Start watching registrations
+     *
+     * @param userId Only watch registrations of this user, null for any user
+     * @param externalId Only watch this registration, null for any registration
+     * @param sink Where events are written to
+     * @return Handle to stop watching
+     */
+    Subscription subscribe(String userId, String externalId, EventSink sink);
+
+    /**
+     * Connection of a watcher
+     */
+    interface EventSink {
+        void send(CARegistrationEvent event) throws IOException;
+
+        void close();
+    }
+
+    /**
+     * Handle of a watcher
+     */
+    interface Subscription {
+        void cancel();
+    }
+}
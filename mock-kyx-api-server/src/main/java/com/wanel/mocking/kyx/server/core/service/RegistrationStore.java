@@ -0,0 +1,108 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Store for Chainalysis registration params, keyed by externalId
+ */
+public interface RegistrationStore {
+
+    /**
+     * Allocate a fresh externalId for a new registration
+     *
+     * @return A new unique externalId
+     */
+    default String newExternalId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Store the params of a registration
+     *
+     * @param externalId The externalId handed out to the client
+     * @param params Registration params, as later passed to the risk check
+     */
+    void put(String externalId, Map<String, Object> params);
+
+    /**
+     * Store the params of a registration unless its user already holds maxPerUser registrations.
+     * The check and the insert are atomic, so concurrent registrations of a user can't overshoot.
+     *
+     * @param externalId The externalId handed out to the client
+     * @param params Registration params, as later passed to the risk check
+     * @param maxPerUser Registrations a user may hold, 0 for unlimited
+     * @return Whether the registration was stored
+     */
+    boolean putWithinQuota(String externalId, Map<String, Object> params, long maxPerUser);
+
+    /**
+     * Remove a registration
+     *
+     * @param externalId The externalId handed out to the client
+     */
+    void remove(String externalId);
+
+    /**
+     * Store a registration recovered from a snapshot, without propagating it any further
+     */
+    default void restore(String externalId, Map<String, Object> params) {
+        put(externalId, params);
+    }
+
+    /**
+     * Get the params of a registration
+     *
+     * @param externalId The externalId handed out to the client
+     * @return The params, or null if unknown
+     */
+    Map<String, Object> get(String externalId);
+
+    /**
+     * Get the params of a registration without blocking the calling thread
+     *
+     * @param externalId The externalId handed out to the client
+     * @return The params, or null if unknown, once available
+     */
+    default CompletableFuture<Map<String, Object>> getAsync(String externalId) {
+        return CompletableFuture.completedFuture(get(externalId));
+    }
+
+    /**
+     * Visit every stored registration
+     */
+    void forEach(BiConsumer<String, Map<String, Object>> consumer);
+
+    /**
+     * Visit the registrations of a single user, without touching other users' registrations
+     *
+     * @param userId The userId the registrations were made for
+     */
+    void forEachOfUser(String userId, BiConsumer<String, Map<String, Object>> consumer);
+
+    /**
+     * @param userId The userId the registrations were made for
+     * @return Number of stored registrations of this user
+     */
+    int countOfUser(String userId);
+
+    /**
+     * @return Number of stored registrations per userId
+     */
+    Map<String, Integer> countsByUser();
+
+    /**
+     * Remove every registration whose expiresAt is before the given time
+     *
+     * @param nowMs Current time in epoch millis
+     * @return Number of removed registrations
+     */
+    int removeExpired(long nowMs);
+
+    /**
+     * @return Number of stored registrations
+     */
+    int size();
+}
@@ -1,5 +1,6 @@
 package com.wanel.mocking.kyx.server.core.service;
 
+import java.util.List;
 import java.util.Map;
 
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
@@ -10,6 +11,13 @@ import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
  */
 public interface RiskCheckService {
 
+    /**
+     * Params keys of a verdict decided in advance (e.g. by a bulk import), returned without running the script
+     */
+    String PRESET_IN_RISK = "presetInRisk";
+    String PRESET_RISK_DETAIL = "presetRiskDetail";
+    String PRESET_CATEGORIES = "presetCategories";
+
     /**
      * Check if a transaction is risky
      * 
@@ -25,4 +33,12 @@ public interface RiskCheckService {
      * @return Risk check result
      */
     RiskCheckResult checkRisk(Map<String, Object> params);
-} 
\ No newline at end of file
+
+    /**
+     * Check many transactions or addresses in a single pass through the script
+     *
+     * @param paramsList Parameters of each check
+     * @return One risk check result per parameter set, in the same order
+     */
+    List<RiskCheckResult> checkRisk(List<Map<String, Object>> paramsList);
+}
@@ -0,0 +1,21 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+/**
+ * Service interface for persisting in-memory state across restarts
+ */
+public interface SnapshotService {
+
+    /**
+     * Write a point-in-time snapshot of the registration store
+     *
+     * @return Number of registrations written
+     */
+    int snapshot();
+
+    /**
+     * Load the last snapshot into the registration store, skipping expired registrations
+     *
+     * @return Number of registrations restored
+     */
+    int restore();
+}
@@ -0,0 +1,23 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+/**
+ * Service interface for running short tasks after a delay, without holding a request thread
+ */
+public interface TimerService {
+
+    /**
+     * Run a task once after the given delay
+     *
+     * @param task Task to run, must be short and non-blocking
+     * @param delayMs Delay in milliseconds
+     * @return Handle to cancel the task before it runs
+     */
+    Cancellable schedule(Runnable task, long delayMs);
+
+    /**
+     * Handle of a scheduled task
+     */
+    interface Cancellable {
+        void cancel();
+    }
+}
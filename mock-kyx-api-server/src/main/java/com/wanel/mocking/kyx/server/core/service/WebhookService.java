@@ -0,0 +1,33 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import java.util.List;
+
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAWebhookRegistration;
+
+/**
+ * Service interface for pushing alerts to client callback urls
+ */
+public interface WebhookService {
+
+    /**
+     * Start pushing alerts to a callback url
+     *
+     * @param url Callback url alerts are POSTed to, in batches
+     * @param userId Only push alerts of this user, null for all users
+     * @return The registered webhook
+     */
+    CAWebhookRegistration register(String url, String userId);
+
+    /**
+     * @return All registered webhooks
+     */
+    List<CAWebhookRegistration> list();
+
+    /**
+     * Stop pushing alerts to a webhook, dropping its undelivered alerts
+     *
+     * @param id The webhook id
+     * @return true if the webhook existed
+     */
+    boolean unregister(String id);
+}
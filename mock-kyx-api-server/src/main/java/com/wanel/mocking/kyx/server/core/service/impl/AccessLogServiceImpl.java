@@ -0,0 +1,197 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.service.AccessLogService;
+import com.wanel.mocking.kyx.server.core.thread.ThreadFactories;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Access log on a ring of preallocated entries. Request threads claim a slot with a CAS and
+ * fill it in, or drop the line if the ring is full; a single writer thread formats the entries
+ * as JSON lines, so request threads never format, lock or wait for I/O.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "kyx.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogServiceImpl implements AccessLogService {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("kyx.access");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final KyxConfiguration kyxConfiguration;
+    private final Entry[] entries;
+    private final int mask;
+    /** Next sequence to claim */
+    private final AtomicLong claimed = new AtomicLong();
+    /** Next sequence to write; slots of lower sequences are free again. Only the writer updates it */
+    private volatile long consumed;
+    private final LongAdder dropped = new LongAdder();
+    private final Writer file;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessLogServiceImpl(KyxConfiguration kyxConfiguration) throws IOException {
+        this.kyxConfiguration = kyxConfiguration;
+        KyxConfiguration.AccessLog config = kyxConfiguration.getAccessLog();
+        int capacity = Integer.highestOneBit(Math.max(2, config.getBufferSize() - 1)) << 1;
+        this.entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+        }
+        this.mask = capacity - 1;
+        this.file = config.getPath().isEmpty() ? null : Files.newBufferedWriter(Path.of(config.getPath()),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writer = ThreadFactories.daemon("kyx-access-log", false).newThread(this::drain);
+        writer.start();
+        log.info("Access log buffering {} requests, written to {}", capacity,
+                file != null ? config.getPath() : "the kyx.access logger");
+    }
+
+    @Override
+    public void record(String method, String route, int status, long durationNanos, String userId, String externalId) {
+        if (!sampled(route, status)) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= entries.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Entry entry = entries[(int) sequence & mask];
+        entry.timestampMs = System.currentTimeMillis();
+        entry.method = method;
+        entry.route = route;
+        entry.status = status;
+        entry.durationNanos = durationNanos;
+        entry.userId = userId;
+        entry.externalId = externalId;
+        entry.published = sequence;
+    }
+
+    @Override
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private boolean sampled(String route, int status) {
+        KyxConfiguration.AccessLog config = kyxConfiguration.getAccessLog();
+        if (status >= 500 && config.isAlwaysLogErrors()) {
+            return true;
+        }
+        Double routeRate = config.getSampleRates().get(route);
+        double rate = routeRate != null ? routeRate : config.getDefaultSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void drain() {
+        long next = consumed;
+        while (running || next < claimed.get()) {
+            Entry entry = entries[(int) next & mask];
+            if (entry.published == next) {
+                write(entry);
+                consumed = ++next;
+            } else if (next < claimed.get()) {
+                // claimed, still being filled in; yield rather than spin in case its thread is descheduled
+                Thread.yield();
+            } else {
+                flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        flush();
+    }
+
+    private void write(Entry entry) {
+        line.setLength(0);
+        line.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(entry.timestampMs), line);
+        line.append("\",\"method\":\"").append(entry.method);
+        line.append("\",\"route\":\"");
+        JsonStringEncoder.getInstance().quoteAsString(entry.route, line);
+        line.append("\",\"status\":").append(entry.status);
+        line.append(",\"durationUs\":").append(entry.durationNanos / 1000);
+        appendString("userId", entry.userId);
+        appendString("externalId", entry.externalId);
+        line.append('}');
+        try {
+            if (file != null) {
+                file.append(line).append('\n');
+            } else {
+                ACCESS.info(line.toString());
+            }
+        } catch (IOException e) {
+            log.error("Error writing access log: {}", e.getMessage());
+        }
+    }
+
+    private void appendString(String name, String value) {
+        if (value != null) {
+            line.append(",\"").append(name).append("\":\"");
+            JsonStringEncoder.getInstance().quoteAsString(value, line);
+            line.append('"');
+        }
+    }
+
+    private void flush() {
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                log.error("Error flushing access log: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write what is buffered, then stop
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private static final class Entry {
+        /** Sequence the entry was last filled in for, written last */
+        volatile long published = -1;
+        long timestampMs;
+        String method;
+        String route;
+        int status;
+        long durationNanos;
+        String userId;
+        String externalId;
+    }
+}
@@ -0,0 +1,311 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAImportProgress;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAImportRecord;
+import com.wanel.mocking.kyx.server.core.service.BulkImportService;
+import com.wanel.mocking.kyx.server.core.service.LatencySimulationService;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The stream is read line by line on the request thread, which hands batches over to a
+ * pool for evaluation and storing. At most two batches per pool thread are in flight;
+ * reading blocks beyond that, so memory stays bounded whatever the size of the stream.
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements BulkImportService {
+
+    private static final int KEPT_IMPORTS = 10;
+
+    private final RegistrationStore registrationStore;
+    private final RiskCheckService riskCheckService;
+    private final LatencySimulationService latencySimulationService;
+    private final RegistrationEventService registrationEventService;
+    private final TimerService timerService;
+    private final ObjectReader recordReader;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService workers;
+    private final Deque<Progress> imports = new ArrayDeque<>();
+
+    @Value("${chainalysis.registration.expiration-time-ms:3600000}")
+    private long expirationTimeMs;
+
+    @Autowired
+    public BulkImportServiceImpl(RegistrationStore registrationStore,
+                                 RiskCheckService riskCheckService,
+                                 LatencySimulationService latencySimulationService,
+                                 RegistrationEventService registrationEventService,
+                                 TimerService timerService,
+                                 ObjectMapper objectMapper,
+                                 KyxConfiguration kyxConfiguration) {
+        this.registrationStore = registrationStore;
+        this.riskCheckService = riskCheckService;
+        this.latencySimulationService = latencySimulationService;
+        this.registrationEventService = registrationEventService;
+        this.timerService = timerService;
+        this.recordReader = objectMapper.readerFor(CAImportRecord.class);
+        KyxConfiguration.BulkImport config = kyxConfiguration.getBulkImport();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.parallelism = config.getParallelism() > 0 ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "registration-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CAImportProgress importRegistrations(InputStream ndjson) throws IOException {
+        Progress progress = new Progress();
+        synchronized (imports) {
+            if (imports.size() >= KEPT_IMPORTS) {
+                imports.removeFirst();
+            }
+            imports.addLast(progress);
+        }
+        log.info("Starting registration import {}", progress.id);
+        
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8), 1 << 16);
+        List<Registration> batch = new ArrayList<>(batchSize);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.read.incrementAndGet();
+                Registration registration = toRegistration(line);
+                if (registration == null) {
+                    progress.failed.incrementAndGet();
+                    continue;
+                }
+                batch.add(registration);
+                if (batch.size() == batchSize) {
+                    submit(batch, inFlight, progress);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, inFlight, progress);
+            }
+        } finally {
+            // wait for the batches still in flight
+            inFlight.acquireUninterruptibly(maxInFlight);
+            progress.finishedAt = System.currentTimeMillis();
+        }
+        
+        CAImportProgress result = progress.toResponse();
+        log.info("Finished registration import {}: {} imported, {} failed in {} ms",
+                result.getId(), result.getImported(), result.getFailed(), result.getElapsedMs());
+        return result;
+    }
+
+    @Override
+    public List<CAImportProgress> progress() {
+        List<CAImportProgress> result = new ArrayList<>();
+        synchronized (imports) {
+            imports.forEach(progress -> result.add(progress.toResponse()));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void submit(List<Registration> batch, Semaphore inFlight, Progress progress) {
+        inFlight.acquireUninterruptibly();
+        try {
+            workers.execute(() -> {
+                try {
+                    storeBatch(batch, progress);
+                } catch (Exception e) {
+                    log.error("Error importing a batch of {} registrations", batch.size(), e);
+                    progress.failed.addAndGet(batch.size());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluate the registrations that came without a verdict in one script call, then store them all
+     * with their verdict so later alert requests don't need the script
+     */
+    private void storeBatch(List<Registration> batch, Progress progress) {
+        List<Map<String, Object>> toEvaluate = new ArrayList<>();
+        for (Registration registration : batch) {
+            if (!registration.params.containsKey(RiskCheckService.PRESET_IN_RISK)) {
+                toEvaluate.add(registration.params);
+            }
+        }
+        if (!toEvaluate.isEmpty()) {
+            List<RiskCheckResult> results = riskCheckService.checkRisk(toEvaluate);
+            for (int i = 0; i < results.size(); i++) {
+                toEvaluate.get(i).put(RiskCheckService.PRESET_IN_RISK, results.get(i).isInRisk());
+                toEvaluate.get(i).put(RiskCheckService.PRESET_RISK_DETAIL, results.get(i).getRiskDetail());
+                toEvaluate.get(i).put(RiskCheckService.PRESET_CATEGORIES, results.get(i).getCategories());
+            }
+            progress.evaluated.addAndGet(results.size());
+        }
+        
+        long risky = 0;
+        for (Registration registration : batch) {
+            registrationStore.put(registration.externalId, registration.params);
+            scheduleReadyEvent(registration.externalId, registration.params);
+            if (Boolean.TRUE.equals(registration.params.get(RiskCheckService.PRESET_IN_RISK))) {
+                risky++;
+            }
+        }
+        progress.risky.addAndGet(risky);
+        progress.imported.addAndGet(batch.size());
+    }
+
+    /**
+     * Push a ready event (and alert, if risky) to watchers and webhooks once the registration
+     * becomes ready, as the register endpoints do
+     */
+    private void scheduleReadyEvent(String externalId, Map<String, Object> params) {
+        Object validTimestamp = params.get("validTimestamp");
+        long remainingMs = validTimestamp != null
+                ? ((Number) validTimestamp).longValue() - Instant.now().toEpochMilli()
+                : 0;
+        if (remainingMs <= 0) {
+            registrationEventService.registrationReady(externalId, params);
+        } else {
+            timerService.schedule(() -> registrationEventService.registrationReady(externalId, params), remainingMs + 1);
+        }
+    }
+
+    /**
+     * Build the params of a registration the same way the register endpoints do, null if the line is invalid
+     */
+    private Registration toRegistration(String line) {
+        CAImportRecord record;
+        try {
+            record = recordReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            log.debug("Skipping unparsable import line: {}", e.getOriginalMessage());
+            return null;
+        }
+        
+        Map<String, Object> params = new HashMap<>();
+        if ("kya".equals(record.getRequestType()) && record.getTargetAddress() != null) {
+            params.put("targetAddress", record.getTargetAddress());
+        } else if ("kyt".equals(record.getRequestType()) && record.getFromAddress() != null && record.getToAddress() != null) {
+            params.put("fromAddress", record.getFromAddress());
+            params.put("toAddress", record.getToAddress());
+            params.put("tokenName", record.getTokenName());
+            params.put("tokenAmount", record.getTokenAmount());
+            if (record.getTxHash() != null) {
+                params.put("txHash", record.getTxHash());
+            }
+        } else {
+            log.debug("Skipping import line without requestType or addresses: {}", line);
+            return null;
+        }
+        params.put("chainId", record.getChainId());
+        params.put("requestType", record.getRequestType());
+        params.put("userId", record.getUserId() != null ? record.getUserId() : "");
+        
+        long createdAt = Instant.now().toEpochMilli();
+        params.put("createdAt", createdAt);
+        params.put("expiresAt", createdAt + expirationTimeMs);
+        
+        if (record.getDelayMs() != null) {
+            params.put("delayProfile", "import");
+            params.put("delayMs", record.getDelayMs());
+        } else {
+            LatencySample delay = latencySimulationService.sampleReadiness(record.getRequestType());
+            params.put("delayProfile", delay.profile());
+            params.put("delayMs", delay.delayMs());
+            params.put("delaySequence", delay.sequence());
+        }
+        long delayMs = ((Number) params.get("delayMs")).longValue();
+        if (delayMs > 0) {
+            params.put("validTimestamp", createdAt + delayMs);
+        } else {
+            params.put("updatedAt", DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(createdAt)));
+        }
+        
+        if (record.getInRisk() != null) {
+            params.put(RiskCheckService.PRESET_IN_RISK, record.getInRisk());
+            params.put(RiskCheckService.PRESET_RISK_DETAIL, record.getRiskDetail() != null ? record.getRiskDetail() : "");
+        }
+        
+        String externalId = record.getExternalId() != null ? record.getExternalId() : registrationStore.newExternalId();
+        return new Registration(externalId, params);
+    }
+
+    private record Registration(String externalId, Map<String, Object> params) {
+    }
+
+    private static class Progress {
+        private final String id = UUID.randomUUID().toString();
+        private final long startedAt = System.currentTimeMillis();
+        private volatile long finishedAt;
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong evaluated = new AtomicLong();
+        private final AtomicLong risky = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        CAImportProgress toResponse() {
+            long end = finishedAt;
+            return CAImportProgress.builder()
+                    .id(id)
+                    .startedAt(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(startedAt)))
+                    .finished(end > 0)
+                    .read(read.get())
+                    .imported(imported.get())
+                    .evaluated(evaluated.get())
+                    .risky(risky.get())
+                    .failed(failed.get())
+                    .elapsedMs((end > 0 ? end : System.currentTimeMillis()) - startedAt)
+                    .build();
+        }
+    }
+}
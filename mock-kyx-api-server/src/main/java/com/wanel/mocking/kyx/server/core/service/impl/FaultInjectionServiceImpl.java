@@ -0,0 +1,71 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.fault.Fault;
+import com.wanel.mocking.kyx.server.core.fault.FaultPlan;
+import com.wanel.mocking.kyx.server.core.service.FaultInjectionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fault rules from kyx.faults, replaced by the admin API or by a Nacos change of kyx.faults,
+ * whichever comes last. Rules are compiled into a FaultPlan published as a whole.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "kyx.faults.enabled", havingValue = "true", matchIfMissing = true)
+public class FaultInjectionServiceImpl implements FaultInjectionService {
+
+    private final KyxConfiguration kyxConfiguration;
+
+    private volatile List<KyxConfiguration.FaultRule> rules = List.of();
+    private volatile FaultPlan plan = FaultPlan.EMPTY;
+
+    @Autowired
+    public FaultInjectionServiceImpl(KyxConfiguration kyxConfiguration) {
+        this.kyxConfiguration = kyxConfiguration;
+        setRules(kyxConfiguration.getFaults().getRules());
+    }
+
+    @Override
+    public Fault decide(String route, String userId) {
+        FaultPlan current = plan;
+        return current.isEmpty() ? null : current.decide(route, userId);
+    }
+
+    @Override
+    public List<KyxConfiguration.FaultRule> getRules() {
+        return rules;
+    }
+
+    @Override
+    public synchronized void setRules(List<KyxConfiguration.FaultRule> rules) {
+        List<KyxConfiguration.FaultRule> copy = List.copyOf(rules);
+        plan = FaultPlan.compile(copy, kyxConfiguration.getSimulation().getSeed());
+        this.rules = copy;
+        log.info("Fault injection: {} rules in force", copy.size());
+    }
+
+    /**
+     * Rules changed in Nacos replace those set through the admin API; other changes keep them
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("kyx.faults"))) {
+            log.info("Configuration changed, reloading fault rules");
+            try {
+                setRules(kyxConfiguration.getFaults().getRules());
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid fault rules, keeping the previous ones: {}", e.getMessage());
+            }
+        }
+    }
+}
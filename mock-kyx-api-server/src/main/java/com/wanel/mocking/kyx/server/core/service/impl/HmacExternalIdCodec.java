@@ -0,0 +1,196 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.core.service.ExternalIdCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Encodes registrations as base64url(payload | truncated HMAC-SHA256(payload)).
+ * All instances behind the same load balancer must share the token secret.
+ */
+@Service
+@Slf4j
+public class HmacExternalIdCodec implements ExternalIdCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte TYPE_KYA = 0;
+    private static final byte TYPE_KYT = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public HmacExternalIdCodec(
+            @Value("${chainalysis.registration.stateless:false}") boolean enabled,
+            @Value("${chainalysis.registration.token-secret:}") String secret) {
+        this.enabled = enabled;
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            if (enabled) {
+                log.warn("No chainalysis.registration.token-secret configured, tokens are only valid on this instance");
+            }
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String encode(Map<String, Object> params) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            boolean kyt = "kyt".equals(params.get("requestType"));
+            out.writeByte(VERSION);
+            out.writeByte(kyt ? TYPE_KYT : TYPE_KYA);
+            out.writeLong(toLong(params.get("createdAt")));
+            out.writeLong(toLong(params.get("validTimestamp")));
+            out.writeLong(toLong(params.get("expiresAt")));
+            out.writeInt(params.get("chainId") != null ? ((Number) params.get("chainId")).intValue() : 0);
+            if (kyt) {
+                writeString(out, (String) params.get("fromAddress"));
+                writeString(out, (String) params.get("toAddress"));
+                writeString(out, (String) params.get("tokenName"));
+                out.writeDouble(params.get("tokenAmount") != null ? ((Number) params.get("tokenAmount")).doubleValue() : 0.0);
+                writeString(out, (String) params.get("txHash"));
+            } else {
+                writeString(out, (String) params.get("targetAddress"));
+            }
+            out.flush();
+
+            byte[] payload = bytes.toByteArray();
+            byte[] token = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+            System.arraycopy(mac(payload, payload.length), 0, token, payload.length, MAC_LENGTH);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode registration", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> decode(String externalId) {
+        byte[] token;
+        try {
+            token = Base64.getUrlDecoder().decode(externalId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (token.length <= MAC_LENGTH + 2 || token[0] != VERSION) {
+            return null;
+        }
+        int payloadLength = token.length - MAC_LENGTH;
+        byte[] expectedMac = Arrays.copyOf(mac(token, payloadLength), MAC_LENGTH);
+        byte[] actualMac = Arrays.copyOfRange(token, payloadLength, token.length);
+        if (!MessageDigest.isEqual(expectedMac, actualMac)) {
+            log.debug("Rejected externalId with invalid MAC: {}", externalId);
+            return null;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(token, 0, payloadLength));
+            in.readByte();
+            boolean kyt = in.readByte() == TYPE_KYT;
+            long createdAt = in.readLong();
+            long validTimestamp = in.readLong();
+            long expiresAt = in.readLong();
+            if (System.currentTimeMillis() > expiresAt) {
+                return null;
+            }
+
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestType", kyt ? "kyt" : "kya");
+            params.put("createdAt", createdAt);
+            params.put("expiresAt", expiresAt);
+            params.put("chainId", in.readInt());
+            if (kyt) {
+                params.put("fromAddress", readString(in));
+                params.put("toAddress", readString(in));
+                params.put("tokenName", readString(in));
+                params.put("tokenAmount", in.readDouble());
+                String txHash = readString(in);
+                if (txHash != null) {
+                    params.put("txHash", txHash);
+                }
+            } else {
+                params.put("targetAddress", readString(in));
+            }
+
+            // Readiness is a pure function of the token, so every node reports the same updatedAt
+            if (validTimestamp == 0) {
+                params.put("updatedAt", DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(createdAt)));
+            } else {
+                params.put("validTimestamp", validTimestamp);
+                if (System.currentTimeMillis() >= validTimestamp) {
+                    params.put("updatedAt", DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(validTimestamp)));
+                }
+            }
+            return params;
+        } catch (IOException e) {
+            log.debug("Malformed externalId payload: {}", externalId);
+            return null;
+        }
+    }
+
+    private byte[] mac(byte[] data, int length) {
+        Mac mac = macs.get();
+        mac.update(data, 0, length);
+        return mac.doFinal();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
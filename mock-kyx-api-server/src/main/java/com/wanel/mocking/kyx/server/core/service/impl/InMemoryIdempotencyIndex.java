@@ -0,0 +1,84 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.core.service.IdempotencyIndex;
+
+/**
+ * Registrations all live for the same expiration time, so insertion order is also expiry
+ * order. Entries are evicted from the head of an insertion-ordered queue, either once
+ * expired or when the index holds more than maxEntries, without any scan or timer.
+ */
+@Service
+public class InMemoryIdempotencyIndex implements IdempotencyIndex {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryIdempotencyIndex(@Value("${chainalysis.registration.idempotency-max-entries:100000}") int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    InMemoryIdempotencyIndex(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= clock.getAsLong()) {
+            return null;
+        }
+        return (T) entry.response;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T putIfAbsent(String key, T response, long expiresAt) {
+        long now = clock.getAsLong();
+        evict(now);
+        Entry entry = new Entry(response, expiresAt);
+        Entry existing = entries.compute(key, (k, current) ->
+                current == null || current.expiresAt <= now ? entry : current);
+        if (existing != entry) {
+            return (T) existing.response;
+        }
+        insertionOrder.add(key);
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        String key;
+        while ((key = insertionOrder.peek()) != null) {
+            Entry entry = entries.get(key);
+            boolean stale = entry == null || entry.expiresAt <= now;
+            if (!stale && entries.size() < maxEntries) {
+                return;
+            }
+            if (insertionOrder.remove(key) && entry != null) {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    private record Entry(Object response, long expiresAt) {
+    }
+}
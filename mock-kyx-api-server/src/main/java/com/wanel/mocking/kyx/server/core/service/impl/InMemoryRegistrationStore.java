@@ -0,0 +1,133 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registrations are sharded by userId, each user having its own map (and so its own
+ * lock domain), so that one user flooding registrations doesn't slow down the others
+ * and user-scoped queries only touch that user's shard. A global index by externalId
+ * keeps lookups from the status and alerts endpoints O(1). A shard is dropped once empty;
+ * shards are only filled and dropped under their user's map entry lock, so a registration
+ * never lands in a shard that was just dropped.
+ */
+@Service
+@Slf4j
+public class InMemoryRegistrationStore implements RegistrationStore {
+
+    private final Map<String, Map<String, Object>> registrationParams = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> userShards = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String externalId, Map<String, Object> params) {
+        userShards.compute(userIdOf(params), (userId, shard) -> {
+            Map<String, Map<String, Object>> target = shard != null ? shard : new ConcurrentHashMap<>();
+            target.put(externalId, params);
+            return target;
+        });
+        registrationParams.put(externalId, params);
+    }
+
+    @Override
+    public boolean putWithinQuota(String externalId, Map<String, Object> params, long maxPerUser) {
+        if (maxPerUser <= 0) {
+            put(externalId, params);
+            return true;
+        }
+        // The user's entry stays locked while its shard is checked and filled
+        boolean[] stored = new boolean[1];
+        userShards.compute(userIdOf(params), (userId, shard) -> {
+            Map<String, Map<String, Object>> target = shard != null ? shard : new ConcurrentHashMap<>();
+            if (target.size() < maxPerUser || target.containsKey(externalId)) {
+                target.put(externalId, params);
+                stored[0] = true;
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (stored[0]) {
+            registrationParams.put(externalId, params);
+        }
+        return stored[0];
+    }
+
+    @Override
+    public void remove(String externalId) {
+        Map<String, Object> params = registrationParams.remove(externalId);
+        if (params != null) {
+            userShards.computeIfPresent(userIdOf(params), (userId, shard) -> {
+                shard.remove(externalId);
+                return shard.isEmpty() ? null : shard;
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Object> get(String externalId) {
+        return registrationParams.get(externalId);
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Map<String, Object>> consumer) {
+        registrationParams.forEach(consumer);
+    }
+
+    @Override
+    public void forEachOfUser(String userId, BiConsumer<String, Map<String, Object>> consumer) {
+        userShards.getOrDefault(userId, Collections.emptyMap()).forEach(consumer);
+    }
+
+    @Override
+    public int countOfUser(String userId) {
+        return userShards.getOrDefault(userId, Collections.emptyMap()).size();
+    }
+
+    @Override
+    public Map<String, Integer> countsByUser() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        userShards.forEach((userId, shard) -> counts.put(userId, shard.size()));
+        return counts;
+    }
+
+    @Override
+    public int removeExpired(long nowMs) {
+        int removedCount = 0;
+        for (Map.Entry<String, Map<String, Map<String, Object>>> userShard : userShards.entrySet()) {
+            Map<String, Map<String, Object>> shard = userShard.getValue();
+            Iterator<Map.Entry<String, Map<String, Object>>> iterator = shard.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Map<String, Object>> entry = iterator.next();
+                Object expiresAt = entry.getValue().get("expiresAt");
+                if (expiresAt != null && nowMs > ((Number) expiresAt).longValue()) {
+                    iterator.remove();
+                    registrationParams.remove(entry.getKey());
+                    removedCount++;
+                    log.debug("Removed expired registration with externalId: {}", entry.getKey());
+                }
+            }
+            if (shard.isEmpty()) {
+                // a registration stored meanwhile keeps the shard
+                userShards.computeIfPresent(userShard.getKey(), (userId, current) -> current.isEmpty() ? null : current);
+            }
+        }
+        return removedCount;
+    }
+
+    @Override
+    public int size() {
+        return registrationParams.size();
+    }
+
+    private static String userIdOf(Map<String, Object> params) {
+        Object userId = params.get("userId");
+        return userId != null ? userId.toString() : "";
+    }
+}
@@ -0,0 +1,139 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.service.LatencySimulationService;
+import com.wanel.mocking.kyx.server.core.simulation.FixedLatencyDistribution;
+import com.wanel.mocking.kyx.server.core.simulation.HistogramLatencyDistribution;
+import com.wanel.mocking.kyx.server.core.simulation.LatencyDistribution;
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
+import com.wanel.mocking.kyx.server.core.simulation.LogNormalLatencyDistribution;
+import com.wanel.mocking.kyx.server.core.simulation.UniformLatencyDistribution;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class LatencySimulationServiceImpl implements LatencySimulationService {
+
+    private static final String DEFAULT_KEY = "default";
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /** Marks routes without a response profile, as the distribution maps cannot hold null */
+    private static final LatencyDistribution NO_DELAY = new FixedLatencyDistribution(0);
+
+    private final KyxConfiguration kyxConfiguration;
+
+    // Built distributions per endpoint, dropped whenever the configuration changes
+    private final Map<String, LatencyDistribution> readinessDistributions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Map<String, LatencyDistribution> responseDistributions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> responseSequences = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LatencySimulationServiceImpl(KyxConfiguration kyxConfiguration) {
+        this.kyxConfiguration = kyxConfiguration;
+    }
+
+    @Override
+    public LatencySample sampleReadiness(String endpoint) {
+        LatencyDistribution distribution = readinessDistributions.computeIfAbsent(endpoint, this::buildReadiness);
+        long sequence = sequences.computeIfAbsent(endpoint, k -> new AtomicLong()).getAndIncrement();
+        return new LatencySample(distribution.describe(), bounded(distribution.sampleMillis(random(endpoint, sequence))), sequence);
+    }
+
+    @Override
+    public LatencySample sampleResponse(String route) {
+        if (kyxConfiguration.getSimulation().getResponse().isEmpty()) {
+            return null;
+        }
+        LatencyDistribution distribution = responseDistributions.computeIfAbsent(route, this::buildResponse);
+        if (distribution == NO_DELAY) {
+            return null;
+        }
+        long sequence = responseSequences.computeIfAbsent(route, k -> new AtomicLong()).getAndIncrement();
+        return new LatencySample(distribution.describe(), bounded(distribution.sampleMillis(random(route, sequence))), sequence);
+    }
+
+    /**
+     * Clamp a drawn delay to [0, max-delay-ms]; a log-normal tail may round to Long.MAX_VALUE
+     */
+    private long bounded(long delayMs) {
+        return Math.min(Math.max(0, delayMs), kyxConfiguration.getSimulation().getMaxDelayMs());
+    }
+
+    /**
+     * Only simulation changes rebuild the profiles and restart the sequences, so that
+     * unrelated changes don't break the replay of a seeded run
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("kyx.simulation"))) {
+            log.info("Configuration changed, rebuilding latency profiles");
+            readinessDistributions.clear();
+            sequences.clear();
+            responseDistributions.clear();
+            responseSequences.clear();
+        }
+    }
+
+    /**
+     * Without a seed, draw from the calling thread's generator (no shared state).
+     * With a seed, derive a generator from (seed, endpoint, sequence) so the n-th
+     * registration of a run gets the same delay regardless of which thread served it.
+     */
+    private RandomGenerator random(String endpoint, long sequence) {
+        Long seed = kyxConfiguration.getSimulation().getSeed();
+        if (seed == null) {
+            return ThreadLocalRandom.current();
+        }
+        return new SplittableRandom(seed ^ (endpoint.hashCode() * GOLDEN_GAMMA) ^ (sequence * GOLDEN_GAMMA + sequence));
+    }
+
+    private LatencyDistribution buildReadiness(String endpoint) {
+        Map<String, KyxConfiguration.LatencyProfile> profiles = kyxConfiguration.getSimulation().getReadiness();
+        KyxConfiguration.LatencyProfile profile = profiles.get(endpoint);
+        if (profile == null) {
+            profile = profiles.getOrDefault(DEFAULT_KEY, new KyxConfiguration.LatencyProfile());
+        }
+        LatencyDistribution distribution = build(profile);
+        log.info("Using readiness profile {} for endpoint {}", distribution.describe(), endpoint);
+        return distribution;
+    }
+
+    private LatencyDistribution buildResponse(String route) {
+        Map<String, KyxConfiguration.LatencyProfile> profiles = kyxConfiguration.getSimulation().getResponse();
+        KyxConfiguration.LatencyProfile profile = profiles.getOrDefault(route, profiles.get(DEFAULT_KEY));
+        if (profile == null) {
+            return NO_DELAY;
+        }
+        LatencyDistribution distribution = build(profile);
+        log.info("Using response profile {} for route {}", distribution.describe(), route);
+        return distribution;
+    }
+
+    static LatencyDistribution build(KyxConfiguration.LatencyProfile profile) {
+        switch (profile.getType()) {
+            case "fixed":
+                return new FixedLatencyDistribution(profile.getFixedMs());
+            case "log-normal":
+                return new LogNormalLatencyDistribution(profile.getMu(), profile.getSigma());
+            case "histogram":
+                return new HistogramLatencyDistribution(profile.getBucketUpperMs(), profile.getBucketCounts());
+            case "uniform":
+                return new UniformLatencyDistribution(profile.getMinMs(), profile.getMaxMs(), profile.getStepMs());
+            default:
+                throw new IllegalArgumentException("Unknown latency profile type: " + profile.getType());
+        }
+    }
+}
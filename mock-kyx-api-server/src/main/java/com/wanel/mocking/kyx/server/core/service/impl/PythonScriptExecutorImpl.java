@@ -11,6 +11,7 @@ import org.python.core.PyInteger;
 import org.python.core.PyLong;
 import org.python.core.PyFloat;
 import org.python.core.PyBoolean;
+import org.python.core.PyList;
 import org.python.core.Py;
 import org.python.util.PythonInterpreter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,10 +24,13 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Slf4j
@@ -37,6 +41,10 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
     private PythonInterpreter interpreter;
     private File scriptFile;
     private final AtomicLong lastModifiedTime = new AtomicLong(0);
+    /** Serializes script (re)loads; evaluations never take it */
+    private final ReentrantLock loadLock = new ReentrantLock();
+    /** Functions resolved by the last load, republished as a whole so evaluations skip the interpreter lookup */
+    private volatile Map<String, PyObject> functions = Map.of();
 
     @Autowired
     public PythonScriptExecutorImpl(KyxConfiguration kyxConfiguration, ObjectMapper objectMapper) {
@@ -116,7 +124,8 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
         }
     }
     
-    private synchronized void loadScript() {
+    private void loadScript() {
+        loadLock.lock();
         try {
             if (scriptFile.exists()) {
                 // Update last modified time
@@ -127,20 +136,38 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
                 log.info("Python script loaded successfully");
                 
                 // Verify the function exists
-                PyObject pyFunction = interpreter.get(kyxConfiguration.getPython().getFunctionName());
+                String functionName = kyxConfiguration.getPython().getFunctionName();
+                PyObject pyFunction = interpreter.get(functionName);
                 if (pyFunction != null) {
-                    log.info("Python function '{}' found and ready to use", kyxConfiguration.getPython().getFunctionName());
+                    log.info("Python function '{}' found and ready to use", functionName);
                 } else {
-                    log.error("Python function '{}' not found in script", kyxConfiguration.getPython().getFunctionName());
+                    log.error("Python function '{}' not found in script", functionName);
                 }
+                Map<String, PyObject> loaded = new HashMap<>();
+                loaded.put(functionName, pyFunction);
+                loaded.put(functionName + "Batch", interpreter.get(functionName + "Batch"));
+                functions = loaded;
             } else {
                 log.error("Python script not found at: {}", scriptFile.getAbsolutePath());
             }
         } catch (Exception e) {
             log.error("Error loading Python script: {}", e.getMessage(), e);
+        } finally {
+            loadLock.unlock();
         }
     }
     
+    /**
+     * Function of the loaded script, resolved from the interpreter only if it was not looked up at load time
+     */
+    private PyObject getFunction(String name) {
+        Map<String, PyObject> loaded = functions;
+        if (loaded.containsKey(name)) {
+            return loaded.get(name);
+        }
+        return interpreter.get(name);
+    }
+    
     /**
      * Check for script file changes every 5 seconds and reload if modified
      */
@@ -149,7 +176,8 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
         if (scriptFile != null && scriptFile.exists()) {
             long currentModified = scriptFile.lastModified();
             
-            if (currentModified > lastModifiedTime.get()) {
+            // A reload already in progress picks up the latest file itself
+            if (currentModified > lastModifiedTime.get() && !loadLock.isLocked()) {
                 log.info("Detected changes in Python script file, reloading...");
                 loadScript();
                 log.info("Python script reloaded successfully");
@@ -191,12 +219,9 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
                 return result;
             }
             
-            PyDictionary pyParams = new PyDictionary();
-            for (Map.Entry<String, Object> entry : params.entrySet()) {
-                pyParams.__setitem__(new PyString(entry.getKey()), toPyObject(entry.getValue()));
-            }
+            PyDictionary pyParams = toPyDictionary(params);
             
-            PyObject pyFunction = interpreter.get(functionName);
+            PyObject pyFunction = getFunction(functionName);
             if (pyFunction == null) {
                 log.error("Python function '{}' not found", functionName);
                 result.put("inRisk", false);
@@ -208,20 +233,14 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
             
             // Convert PyDictionary to Java Map
             if (pyResult instanceof PyDictionary) {
-                PyDictionary pyDict = (PyDictionary) pyResult;
-                for (Object key : pyDict.keys()) {
-                    String keyStr = key.toString();
-                    // Convert key to PyString for lookup
-                    PyObject value = pyDict.__finditem__(new PyString(keyStr));
-                    result.put(keyStr, value.__tojava__(Object.class));
-                }
+                result.putAll(toJavaMap((PyDictionary) pyResult));
             } else {
                 log.error("Python function did not return a dictionary");
                 result.put("inRisk", false);
                 result.put("riskDetail", "Error: Python function returned unexpected type");
             }
             
-            log.info("Risk check result using Python: {}", result);
+            log.debug("Risk check result using Python: {}", result);
             
         } catch (Exception e) {
             log.error("Error executing Python function: {}", e.getMessage(), e);
@@ -231,4 +250,83 @@ public class PythonScriptExecutorImpl implements PythonScriptExecutor {
         
         return result;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public List<Map<String, Object>> executeFunctionBatch(String functionName, List<Map<String, Object>> paramsList) {
+        List<Map<String, Object>> results = new ArrayList<>(paramsList.size());
+        if (interpreter == null) {
+            log.error("Python interpreter is not initialized");
+            paramsList.forEach(params -> results.add(errorResult("Error: Python interpreter not initialized")));
+            return results;
+        }
+        
+        PyObject pyBatchFunction = getFunction(functionName + "Batch");
+        if (pyBatchFunction != null) {
+            try {
+                PyList pyParamsList = new PyList();
+                for (Map<String, Object> params : paramsList) {
+                    pyParamsList.append(toPyDictionary(params));
+                }
+                PyObject pyResults = pyBatchFunction.__call__(pyParamsList);
+                if (pyResults instanceof PyList && pyResults.__len__() == paramsList.size()) {
+                    for (PyObject pyResult : ((PyList) pyResults).getArray()) {
+                        results.add(pyResult instanceof PyDictionary
+                                ? toJavaMap((PyDictionary) pyResult)
+                                : errorResult("Error: Python function returned unexpected type"));
+                    }
+                    return results;
+                }
+                log.error("Python function '{}Batch' did not return one result per parameter set", functionName);
+            } catch (Exception e) {
+                log.error("Error executing Python function '{}Batch': {}", functionName, e.getMessage(), e);
+            }
+            paramsList.forEach(params -> results.add(errorResult("Error: Python batch function failed")));
+            return results;
+        }
+        
+        PyObject pyFunction = getFunction(functionName);
+        if (pyFunction == null) {
+            log.error("Python function '{}' not found", functionName);
+            paramsList.forEach(params -> results.add(errorResult("Error: Python function not found")));
+            return results;
+        }
+        for (Map<String, Object> params : paramsList) {
+            try {
+                PyObject pyResult = pyFunction.__call__(toPyDictionary(params));
+                results.add(pyResult instanceof PyDictionary
+                        ? toJavaMap((PyDictionary) pyResult)
+                        : errorResult("Error: Python function returned unexpected type"));
+            } catch (Exception e) {
+                log.error("Error executing Python function: {}", e.getMessage(), e);
+                results.add(errorResult("Error: " + e.getMessage()));
+            }
+        }
+        return results;
+    }
+    
+    private PyDictionary toPyDictionary(Map<String, Object> params) {
+        PyDictionary pyParams = new PyDictionary();
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            pyParams.__setitem__(new PyString(entry.getKey()), toPyObject(entry.getValue()));
+        }
+        return pyParams;
+    }
+    
+    private Map<String, Object> toJavaMap(PyDictionary pyDict) {
+        Map<String, Object> result = new HashMap<>();
+        for (Object key : pyDict.keys()) {
+            String keyStr = key.toString();
+            // Convert key to PyString for lookup
+            PyObject value = pyDict.__finditem__(new PyString(keyStr));
+            result.put(keyStr, value.__tojava__(Object.class));
+        }
+        return result;
+    }
+    
+    private Map<String, Object> errorResult(String riskDetail) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("inRisk", false);
+        result.put("riskDetail", riskDetail);
+        return result;
+    }
+}
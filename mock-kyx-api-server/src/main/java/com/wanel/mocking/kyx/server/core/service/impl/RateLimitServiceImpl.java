@@ -0,0 +1,95 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.ratelimit.TokenBucketLimiter;
+import com.wanel.mocking.kyx.server.core.service.RateLimitService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rate limits on token buckets, one family of buckets per user and one per API token.
+ * A request must get a token from both; a request refused by the token quota has still
+ * spent its user token, as the providers count refused requests too.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "kyx.rate-limit.enabled", havingValue = "true")
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private final KyxConfiguration kyxConfiguration;
+
+    // Rebuilt whenever the configuration changes, null for unlimited
+    private volatile TokenBucketLimiter userLimiter;
+    private volatile TokenBucketLimiter tokenLimiter;
+
+    @Autowired
+    public RateLimitServiceImpl(KyxConfiguration kyxConfiguration) {
+        this.kyxConfiguration = kyxConfiguration;
+        build();
+    }
+
+    @Override
+    public long acquire(String userId, String token) {
+        long now = System.nanoTime();
+        TokenBucketLimiter users = userLimiter;
+        long wait = users != null && userId != null ? users.tryAcquire(userId, now) : 0;
+        TokenBucketLimiter tokens = tokenLimiter;
+        if (wait == 0 && tokens != null && token != null) {
+            wait = tokens.tryAcquire(token, now);
+        }
+        return wait;
+    }
+
+    /**
+     * Only rate limit changes rebuild the buckets, so other changes keep the users' spent tokens
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("kyx.rate-limit"))) {
+            log.info("Configuration changed, rebuilding rate limits");
+            build();
+        }
+    }
+
+    /**
+     * Forget the users and tokens whose buckets are full again
+     */
+    @Scheduled(fixedDelayString = "${kyx.rate-limit.idle-eviction-ms:60000}")
+    public void removeIdle() {
+        long now = System.nanoTime();
+        int removed = removeIdle(userLimiter, now) + removeIdle(tokenLimiter, now);
+        if (removed > 0) {
+            log.debug("Dropped {} idle rate limit buckets", removed);
+        }
+    }
+
+    private static int removeIdle(TokenBucketLimiter limiter, long now) {
+        return limiter != null ? limiter.removeIdle(now) : 0;
+    }
+
+    private void build() {
+        KyxConfiguration.RateLimit config = kyxConfiguration.getRateLimit();
+        userLimiter = limiter(config.getUser(), config.getStripes());
+        tokenLimiter = limiter(config.getToken(), config.getStripes());
+        log.info("Rate limits: {} per user, {} per API token", describe(config.getUser()), describe(config.getToken()));
+    }
+
+    private static TokenBucketLimiter limiter(KyxConfiguration.RateLimitRule rule, int stripes) {
+        return rule.getRequestsPerSecond() > 0
+                ? new TokenBucketLimiter(rule.getRequestsPerSecond(), rule.getBurst(), stripes)
+                : null;
+    }
+
+    private static String describe(KyxConfiguration.RateLimitRule rule) {
+        return rule.getRequestsPerSecond() > 0
+                ? rule.getRequestsPerSecond() + " req/s (burst " + rule.getBurst() + ")"
+                : "unlimited";
+    }
+}
@@ -0,0 +1,361 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+import com.wanel.mocking.kyx.server.core.thread.ThreadFactories;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * All routing runs on a single event loop thread, which owns the watcher indexes
+ * (by externalId, by userId, and unfiltered) so no locking is needed to find the
+ * watchers of an event. Each watcher has its own bounded buffer: a slow client only
+ * loses its own oldest events, it never stalls the loop or the other watchers.
+ * Buffers are flushed to the connections by a small pool of writer threads, a bounded
+ * batch per turn so that busy watchers take turns with the others. A send that blocks past
+ * the deadline cancels its watcher, and a writer is added in place of the blocked one until
+ * the send returns. Risk checks run on their own threads.
+ */
+@Service
+@Slf4j
+public class RegistrationEventServiceImpl implements RegistrationEventService {
+
+    private final RiskCheckService riskCheckService;
+    private final int bufferSize;
+    private final int batchSize;
+    private final long sendTimeoutNanos;
+    private final long sweepIntervalMs;
+    private final BlockingQueue<Runnable> loopTasks = new LinkedBlockingQueue<>();
+    private final int writerThreads;
+    private final ThreadPoolExecutor writers;
+    private final ExecutorService riskCheckers;
+    private final Thread eventLoop;
+    private final AtomicInteger watcherCount = new AtomicInteger();
+    // Writers added in place of the ones blocked in an abandoned send
+    private int replacedWriters;
+
+    // Only touched by the event loop thread
+    private final Map<String, Set<Watcher>> byExternalId = new HashMap<>();
+    private final Map<String, Set<Watcher>> byUserId = new HashMap<>();
+    private final Set<Watcher> unfiltered = new LinkedHashSet<>();
+
+    @Autowired
+    public RegistrationEventServiceImpl(RiskCheckService riskCheckService,
+                                        @Value("${chainalysis.events.buffer-size:256}") int bufferSize,
+                                        @Value("${chainalysis.events.writer-threads:4}") int writerThreads,
+                                        @Value("${chainalysis.events.batch-size:32}") int batchSize,
+                                        @Value("${chainalysis.events.send-timeout-ms:5000}") long sendTimeoutMs,
+                                        @Value("${chainalysis.events.risk-threads:2}") int riskThreads,
+                                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.riskCheckService = riskCheckService;
+        this.bufferSize = bufferSize;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.sweepIntervalMs = Math.max(10, sendTimeoutMs / 4);
+        this.writerThreads = writerThreads;
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), ThreadFactories.daemon("registration-event-writer", virtualThreads));
+        this.riskCheckers = Executors.newFixedThreadPool(riskThreads,
+                ThreadFactories.daemon("registration-event-risk", virtualThreads));
+        this.eventLoop = new Thread(this::runLoop, "registration-event-loop");
+        this.eventLoop.setDaemon(true);
+        this.eventLoop.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventLoop.interrupt();
+        writers.shutdownNow();
+        riskCheckers.shutdownNow();
+    }
+
+    @Override
+    public void registrationReady(String externalId, Map<String, Object> params) {
+        if (watcherCount.get() == 0) {
+            // Nobody is listening, don't even enqueue
+            return;
+        }
+        loopTasks.offer(() -> {
+            String userId = params.get("userId") != null ? params.get("userId").toString() : null;
+            List<Watcher> watchers = watchersOf(userId, externalId);
+            if (watchers.isEmpty()) {
+                return;
+            }
+            String updatedAt = params.get("updatedAt") != null
+                    ? params.get("updatedAt").toString()
+                    : DateTimeFormatter.ISO_INSTANT.format(params.get("validTimestamp") != null
+                            ? Instant.ofEpochMilli(((Number) params.get("validTimestamp")).longValue())
+                            : Instant.now());
+            CARegistrationEvent ready = CARegistrationEvent.builder()
+                    .type(CARegistrationEvent.READY)
+                    .externalId(externalId)
+                    .userId(userId)
+                    .requestType((String) params.get("requestType"))
+                    .updatedAt(updatedAt)
+                    .build();
+            watchers.forEach(watcher -> watcher.deliver(ready));
+
+            // The risk check may take a while, keep it off the event loop and the writers
+            riskCheckers.execute(() -> {
+                RiskCheckResult result = riskCheckService.checkRisk(params);
+                if (!result.isInRisk()) {
+                    return;
+                }
+                for (CAKyXAlertResponse.Alert alert : CAKyXAlertResponse.alerts(result.getCategories(), externalId)) {
+                    CARegistrationEvent alertEvent = CARegistrationEvent.builder()
+                            .type(CARegistrationEvent.ALERT)
+                            .externalId(externalId)
+                            .userId(userId)
+                            .requestType(ready.getRequestType())
+                            .updatedAt(updatedAt)
+                            .alert(alert)
+                            .build();
+                    loopTasks.offer(() -> watchersOf(userId, externalId).forEach(watcher -> watcher.deliver(alertEvent)));
+                }
+            });
+        });
+    }
+
+    @Override
+    public Subscription subscribe(String userId, String externalId, EventSink sink) {
+        Watcher watcher = new Watcher(userId, externalId, sink);
+        watcherCount.incrementAndGet();
+        loopTasks.offer(() -> {
+            if (externalId != null) {
+                byExternalId.computeIfAbsent(externalId, k -> new LinkedHashSet<>()).add(watcher);
+            } else if (userId != null) {
+                byUserId.computeIfAbsent(userId, k -> new LinkedHashSet<>()).add(watcher);
+            } else {
+                unfiltered.add(watcher);
+            }
+        });
+        return watcher::cancel;
+    }
+
+    private void runLoop() {
+        long nextSweep = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Runnable task = loopTasks.poll(sweepIntervalMs, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+                long now = System.nanoTime();
+                if (now - nextSweep >= 0) {
+                    abandonBlockedSends(now);
+                    nextSweep = now + TimeUnit.MILLISECONDS.toNanos(sweepIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Error in registration event loop", e);
+            }
+        }
+    }
+
+    private void abandonBlockedSends(long now) {
+        if (watcherCount.get() == 0) {
+            return;
+        }
+        List<Watcher> watchers = new ArrayList<>(unfiltered);
+        byExternalId.values().forEach(watchers::addAll);
+        byUserId.values().forEach(watchers::addAll);
+        for (Watcher watcher : watchers) {
+            watcher.abandonIfBlocked(now);
+        }
+    }
+
+    /**
+     * Grow or shrink the writers, keeping writerThreads of them free of abandoned sends
+     */
+    private synchronized void replaceWriters(int delta) {
+        replacedWriters += delta;
+        int size = writerThreads + replacedWriters;
+        // the core size may never exceed the maximum size
+        if (delta > 0) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    private List<Watcher> watchersOf(String userId, String externalId) {
+        List<Watcher> watchers = new ArrayList<>(unfiltered);
+        Set<Watcher> ofId = byExternalId.get(externalId);
+        if (ofId != null) {
+            for (Watcher watcher : ofId) {
+                // a watcher of an externalId may also restrict the user
+                if (watcher.userId == null || watcher.userId.equals(userId)) {
+                    watchers.add(watcher);
+                }
+            }
+        }
+        if (userId != null && byUserId.containsKey(userId)) {
+            watchers.addAll(byUserId.get(userId));
+        }
+        return watchers;
+    }
+
+    private class Watcher {
+        private static final long IDLE = Long.MIN_VALUE;
+        private static final long ABANDONED = Long.MAX_VALUE;
+
+        private final String userId;
+        private final String externalId;
+        private final EventSink sink;
+        private final ArrayDeque<CARegistrationEvent> buffer = new ArrayDeque<>();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        // Start of the send in progress, IDLE or ABANDONED
+        private final AtomicLong sendStartedAt = new AtomicLong(IDLE);
+        private long dropped;
+
+        Watcher(String userId, String externalId, EventSink sink) {
+            this.userId = userId;
+            this.externalId = externalId;
+            this.sink = sink;
+        }
+
+        void deliver(CARegistrationEvent event) {
+            if (cancelled.get()) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.poll();
+                    if (dropped++ % 1000 == 0) {
+                        log.warn("Watcher of user {} / externalId {} is too slow, dropped {} events", userId, externalId, dropped);
+                    }
+                }
+                buffer.add(event);
+            }
+            if (flushing.compareAndSet(false, true)) {
+                writers.execute(this::flush);
+            }
+        }
+
+        void flush() {
+            int sent = 0;
+            while (!cancelled.get()) {
+                if (sent == batchSize) {
+                    // Let the other watchers have a turn, flushing stays set
+                    writers.execute(this::flush);
+                    return;
+                }
+                CARegistrationEvent event;
+                synchronized (buffer) {
+                    event = buffer.poll();
+                }
+                if (event == null) {
+                    flushing.set(false);
+                    // an event may have been added between the poll and the reset
+                    synchronized (buffer) {
+                        if (buffer.isEmpty() || !flushing.compareAndSet(false, true)) {
+                            return;
+                        }
+                    }
+                    continue;
+                }
+                long startedAt = System.nanoTime();
+                sendStartedAt.set(startedAt);
+                boolean failed = false;
+                try {
+                    sink.send(event);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Watcher connection closed: {}", e.getMessage());
+                    failed = true;
+                }
+                if (!sendStartedAt.compareAndSet(startedAt, IDLE)) {
+                    // Abandoned while blocked, a writer was added in place of this one
+                    replaceWriters(-1);
+                    sink.close();
+                    return;
+                }
+                if (failed) {
+                    cancel();
+                    return;
+                }
+                sent++;
+            }
+        }
+
+        /**
+         * Called by the event loop. The connection can't be closed while the send holds it,
+         * so the watcher is only unregistered here and closed once the send returns.
+         */
+        void abandonIfBlocked(long now) {
+            long startedAt = sendStartedAt.get();
+            if (startedAt == IDLE || startedAt == ABANDONED || now - startedAt < sendTimeoutNanos
+                    || !sendStartedAt.compareAndSet(startedAt, ABANDONED)) {
+                return;
+            }
+            log.warn("Watcher of user {} / externalId {} blocked a send for over {} ms, cancelling it",
+                    userId, externalId, TimeUnit.NANOSECONDS.toMillis(now - startedAt));
+            replaceWriters(1);
+            unregister();
+        }
+
+        void cancel() {
+            if (unregister()) {
+                sink.close();
+            }
+        }
+
+        private boolean unregister() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return false;
+            }
+            watcherCount.decrementAndGet();
+            loopTasks.offer(() -> {
+                if (externalId != null) {
+                    removeFrom(byExternalId, externalId);
+                } else if (userId != null) {
+                    removeFrom(byUserId, userId);
+                } else {
+                    unfiltered.remove(this);
+                }
+            });
+            return true;
+        }
+
+        private void removeFrom(Map<String, Set<Watcher>> index, String key) {
+            Set<Watcher> watchers = index.get(key);
+            if (watchers != null) {
+                watchers.remove(this);
+                if (watchers.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
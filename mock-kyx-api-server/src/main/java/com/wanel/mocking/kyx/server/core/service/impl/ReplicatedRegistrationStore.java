@@ -0,0 +1,360 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.cluster.ConsistentHashRing;
+import com.wanel.mocking.kyx.server.core.cluster.RegistrationChange;
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registration store replicated between peer instances.
+ * <p>
+ * Writes are applied locally and propagated to every peer asynchronously, in batches.
+ * Each instance only hands out externalIds that the consistent hash ring maps to itself,
+ * so the owner of a registration always has it; a read that misses locally (because the
+ * batch carrying it hasn't arrived yet) is forwarded to the owner. Owners that answered
+ * they don't have a registration are not asked again for a while, so unknown, expired or
+ * bogus externalIds cost one bounded forward rather than one per read.
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(name = "kyx.replication.enabled", havingValue = "true")
+public class ReplicatedRegistrationStore implements RegistrationStore {
+
+    public static final String REPLICATION_PATH = "/internal/replication/registrations";
+    private static final int MAX_ID_ATTEMPTS = 64;
+
+    private final InMemoryRegistrationStore local;
+    private final ObjectMapper objectMapper;
+    private final KyxConfiguration.Replication config;
+    private final ConsistentHashRing ring;
+    private final List<String> remotePeers = new ArrayList<>();
+    private final HttpClient httpClient;
+    private final BlockingQueue<RegistrationChange> outbound = new LinkedBlockingQueue<>();
+    /** externalIds whose owner recently didn't have them, with the nanoTime until which this holds */
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread sender;
+
+    @Autowired
+    public ReplicatedRegistrationStore(InMemoryRegistrationStore local, ObjectMapper objectMapper,
+                                       KyxConfiguration kyxConfiguration) {
+        this.local = local;
+        this.objectMapper = objectMapper;
+        this.config = kyxConfiguration.getReplication();
+        this.ring = new ConsistentHashRing(config.getPeers());
+        for (String peer : config.getPeers()) {
+            if (!peer.equals(config.getSelf())) {
+                remotePeers.add(peer);
+            }
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(config.getForwardTimeoutMs()))
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.getSelf() == null || !config.getPeers().contains(config.getSelf())) {
+            throw new IllegalStateException("kyx.replication.self must be one of kyx.replication.peers");
+        }
+        log.info("Replicating registrations from {} to peers {}", config.getSelf(), remotePeers);
+        running = true;
+        sender = new Thread(this::sendLoop, "registration-replicator");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        sender.join(config.getForwardTimeoutMs());
+    }
+
+    @Override
+    public String newExternalId() {
+        // Pick an id owned by this instance, so that reads of it can always be forwarded here
+        String externalId = UUID.randomUUID().toString();
+        for (int i = 1; i < MAX_ID_ATTEMPTS && !config.getSelf().equals(ring.ownerOf(externalId)); i++) {
+            externalId = UUID.randomUUID().toString();
+        }
+        return externalId;
+    }
+
+    @Override
+    public void put(String externalId, Map<String, Object> params) {
+        local.put(externalId, params);
+        misses.remove(externalId);
+        if (!remotePeers.isEmpty()) {
+            outbound.offer(new RegistrationChange(externalId, params));
+        }
+    }
+
+    @Override
+    public boolean putWithinQuota(String externalId, Map<String, Object> params, long maxPerUser) {
+        // quotas only count the registrations held by this instance
+        if (!local.putWithinQuota(externalId, params, maxPerUser)) {
+            return false;
+        }
+        misses.remove(externalId);
+        if (!remotePeers.isEmpty()) {
+            outbound.offer(new RegistrationChange(externalId, params));
+        }
+        return true;
+    }
+
+    @Override
+    public void remove(String externalId) {
+        local.remove(externalId);
+        if (!remotePeers.isEmpty()) {
+            outbound.offer(new RegistrationChange(externalId, null));
+        }
+    }
+
+    @Override
+    public void restore(String externalId, Map<String, Object> params) {
+        // every peer restores its own snapshot, no need to broadcast
+        local.put(externalId, params);
+    }
+
+    /**
+     * Blocks for at most forward-timeout-ms on a local miss, so callers on event loops or on
+     * the timer thread must use {@link #getAsync} instead
+     */
+    @Override
+    public Map<String, Object> get(String externalId) {
+        Map<String, Object> params = local.get(externalId);
+        if (params != null) {
+            return params;
+        }
+        String owner = remoteOwner(externalId);
+        if (owner == null) {
+            return null;
+        }
+        try {
+            HttpResponse<byte[]> response = httpClient.send(forwardRequest(owner, externalId),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return forwarded(owner, externalId, response, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return forwarded(owner, externalId, null, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getAsync(String externalId) {
+        Map<String, Object> params = local.get(externalId);
+        if (params != null) {
+            return CompletableFuture.completedFuture(params);
+        }
+        String owner = remoteOwner(externalId);
+        if (owner == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return httpClient.sendAsync(forwardRequest(owner, externalId), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> forwarded(owner, externalId, response, error));
+    }
+
+    /**
+     * Get a registration from this instance only, used to answer forwarded reads
+     */
+    public Map<String, Object> getLocal(String externalId) {
+        return local.get(externalId);
+    }
+
+    /**
+     * Apply a batch of changes received from a peer
+     */
+    public void applyReplicated(List<RegistrationChange> changes) {
+        for (RegistrationChange change : changes) {
+            if (change.getParams() == null) {
+                local.remove(change.getExternalId());
+                continue;
+            }
+            local.put(change.getExternalId(), change.getParams());
+            misses.remove(change.getExternalId());
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Map<String, Object>> consumer) {
+        local.forEach(consumer);
+    }
+
+    @Override
+    public void forEachOfUser(String userId, BiConsumer<String, Map<String, Object>> consumer) {
+        local.forEachOfUser(userId, consumer);
+    }
+
+    @Override
+    public int countOfUser(String userId) {
+        return local.countOfUser(userId);
+    }
+
+    @Override
+    public Map<String, Integer> countsByUser() {
+        return local.countsByUser();
+    }
+
+    @Override
+    public int removeExpired(long nowMs) {
+        return local.removeExpired(nowMs);
+    }
+
+    @Override
+    public int size() {
+        return local.size();
+    }
+
+    /**
+     * Instance to forward a local miss to, null if this instance owns the externalId
+     * or its owner recently didn't have it
+     */
+    private String remoteOwner(String externalId) {
+        String owner = ring.ownerOf(externalId);
+        if (owner == null || owner.equals(config.getSelf())) {
+            return null;
+        }
+        Long missUntil = misses.get(externalId);
+        if (missUntil != null) {
+            if (missUntil - System.nanoTime() > 0) {
+                return null;
+            }
+            misses.remove(externalId, missUntil);
+        }
+        return owner;
+    }
+
+    private HttpRequest forwardRequest(String owner, String externalId) {
+        return HttpRequest.newBuilder(URI.create(owner + REPLICATION_PATH + "/" + externalId))
+                .timeout(Duration.ofMillis(config.getForwardTimeoutMs()))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Outcome of a forwarded read: the registration is kept locally, and an owner answering
+     * that it doesn't have it is remembered; failures are not, as the owner may well have it
+     */
+    private Map<String, Object> forwarded(String owner, String externalId, HttpResponse<byte[]> response, Throwable error) {
+        if (error != null) {
+            log.warn("Forwarding read of {} to {} failed: {}", externalId, owner, error.getMessage());
+            return null;
+        }
+        if (response.statusCode() == 404) {
+            rememberMissing(externalId);
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            log.warn("Forwarding read of {} to {} returned {}", externalId, owner, response.statusCode());
+            return null;
+        }
+        try {
+            Map<String, Object> params = objectMapper.readValue(response.body(), new TypeReference<Map<String, Object>>() {});
+            local.put(externalId, params);
+            return params;
+        } catch (Exception e) {
+            log.warn("Forwarded read of {} from {} is unreadable: {}", externalId, owner, e.getMessage());
+            return null;
+        }
+    }
+
+    private void rememberMissing(String externalId) {
+        if (config.getNegativeCacheMs() <= 0) {
+            return;
+        }
+        if (misses.size() >= config.getNegativeCacheMaxEntries()) {
+            misses.clear();
+        }
+        misses.put(externalId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getNegativeCacheMs()));
+    }
+
+    /**
+     * Collect changes until the batch is full or the first change has lingered long enough,
+     * then send the batch to every peer without waiting for their answers
+     */
+    private void sendLoop() {
+        List<RegistrationChange> batch = new ArrayList<>(config.getBatchSize());
+        while (running || !outbound.isEmpty()) {
+            try {
+                RegistrationChange first = outbound.poll(config.getLingerMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getLingerMs());
+                while (batch.size() < config.getBatchSize()) {
+                    outbound.drainTo(batch, config.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= config.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    RegistrationChange next = outbound.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                // only stop() may end replication, and it clears running first
+                if (running) {
+                    log.warn("Registration replicator interrupted, carrying on until stopped");
+                }
+            } catch (Exception e) {
+                log.error("Error replicating {} registrations", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<RegistrationChange> batch) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(batch);
+        int size = batch.size();
+        for (String peer : remotePeers) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(peer + REPLICATION_PATH))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.warn("Replicating {} registrations to {} failed: {}", size, peer, error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            log.warn("Replicating {} registrations to {} returned {}", size, peer, response.statusCode());
+                        }
+                    });
+        }
+    }
+}
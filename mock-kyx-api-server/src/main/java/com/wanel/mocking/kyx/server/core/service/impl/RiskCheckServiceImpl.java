@@ -1,12 +1,15 @@
 package com.wanel.mocking.kyx.server.core.service.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
 import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
 import com.wanel.mocking.kyx.server.core.service.PythonScriptExecutor;
@@ -29,7 +32,7 @@ public class RiskCheckServiceImpl implements RiskCheckService {
 
     @Override
     public RiskCheckResult checkRisk(TransactionCheckRequest request) {
-        log.info("Checking risk for transaction: {}", request);
+        log.debug("Checking risk for transaction: {}", request);
         
         Map<String, Object> params = new HashMap<>();
         params.put("fromAddress", request.getFromAddress());
@@ -47,19 +50,82 @@ public class RiskCheckServiceImpl implements RiskCheckService {
     
     @Override
     public RiskCheckResult checkRisk(Map<String, Object> params) {
-        log.info("Checking risk with parameters: {}", params);
+        log.debug("Checking risk with parameters: {}", params);
         return executeRiskCheck(params);
     }
     
+    @Override
+    public List<RiskCheckResult> checkRisk(List<Map<String, Object>> paramsList) {
+        log.debug("Checking risk for a batch of {} parameter sets", paramsList.size());
+        List<Map<String, Object>> toEvaluate = new ArrayList<>(paramsList.size());
+        for (Map<String, Object> params : paramsList) {
+            if (!params.containsKey(PRESET_IN_RISK)) {
+                toEvaluate.add(params);
+            }
+        }
+        List<Map<String, Object>> results = toEvaluate.isEmpty() ? toEvaluate : pythonScriptExecutor.executeFunctionBatch(
+            kyxConfiguration.getPython().getFunctionName(),
+            toEvaluate
+        );
+        
+        List<RiskCheckResult> riskCheckResults = new ArrayList<>(paramsList.size());
+        int evaluated = 0;
+        for (Map<String, Object> params : paramsList) {
+            riskCheckResults.add(params.containsKey(PRESET_IN_RISK)
+                ? presetResult(params)
+                : toRiskCheckResult(results.get(evaluated++)));
+        }
+        return riskCheckResults;
+    }
+    
     private RiskCheckResult executeRiskCheck(Map<String, Object> params) {
+        if (params.containsKey(PRESET_IN_RISK)) {
+            return presetResult(params);
+        }
         Map<String, Object> result = pythonScriptExecutor.executeFunction(
             kyxConfiguration.getPython().getFunctionName(), 
             params
         );
         
+        return toRiskCheckResult(result);
+    }
+    
+    private RiskCheckResult presetResult(Map<String, Object> params) {
+        Object riskDetail = params.get(PRESET_RISK_DETAIL);
+        return RiskCheckResult.builder()
+            .inRisk(Boolean.TRUE.equals(params.get(PRESET_IN_RISK)))
+            .riskDetail(riskDetail != null ? riskDetail.toString() : "")
+            .categories(toCategories(params.get(PRESET_CATEGORIES)))
+            .build();
+    }
+    
+    private RiskCheckResult toRiskCheckResult(Map<String, Object> result) {
+        long categories = toCategories(result.get("categories"));
         return RiskCheckResult.builder()
-            .inRisk(Boolean.TRUE.equals(result.get("inRisk")))
+            .inRisk(Boolean.TRUE.equals(result.get("inRisk")) || categories != 0)
             .riskDetail(result.get("riskDetail") != null ? result.get("riskDetail").toString() : "")
+            .categories(categories)
             .build();
     }
+    
+    /**
+     * Bitmask of the categories a script returned, either as a list of GoPlus flag names or as a bitmask
+     */
+    private long toCategories(Object categories) {
+        if (categories instanceof Number) {
+            return ((Number) categories).longValue();
+        }
+        long mask = 0;
+        if (categories instanceof Iterable) {
+            for (Object name : (Iterable<?>) categories) {
+                RiskCategory category = RiskCategory.forName(String.valueOf(name));
+                if (category != null) {
+                    mask |= category.bit();
+                } else {
+                    log.warn("Ignoring unknown risk category '{}'", name);
+                }
+            }
+        }
+        return mask;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+import com.wanel.mocking.kyx.server.core.service.SnapshotService;
+import com.wanel.mocking.kyx.server.core.snapshot.RegistrationSnapshotFile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Snapshots the registration store on a background thread. Stored params are
+ * never mutated in place, so the snapshot walks the live store without locking
+ * it and requests keep being served while it is written.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "kyx.snapshot.enabled", havingValue = "true")
+public class SnapshotServiceImpl implements SnapshotService {
+
+    private final RegistrationStore registrationStore;
+    private final KyxConfiguration.Snapshot config;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "registration-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public SnapshotServiceImpl(RegistrationStore registrationStore, KyxConfiguration kyxConfiguration) {
+        this.registrationStore = registrationStore;
+        this.config = kyxConfiguration.getSnapshot();
+    }
+
+    @PostConstruct
+    public void init() {
+        restore();
+        executor.scheduleWithFixedDelay(this::snapshot, config.getIntervalMs(), config.getIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        snapshot();
+    }
+
+    @Override
+    public synchronized int snapshot() {
+        Path path = Paths.get(config.getPath());
+        long start = System.currentTimeMillis();
+        try {
+            int count = RegistrationSnapshotFile.write(path, registrationStore, start);
+            log.info("Snapshotted {} registrations to {} in {} ms", count, path, System.currentTimeMillis() - start);
+            return count;
+        } catch (Exception e) {
+            log.error("Error writing snapshot to {}", path, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public int restore() {
+        Path path = Paths.get(config.getPath());
+        if (!Files.exists(path)) {
+            log.info("No snapshot found at {}, starting empty", path);
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        int[] count = new int[1];
+        try {
+            long snapshotTime = RegistrationSnapshotFile.read(path, (externalId, params) -> {
+                Object expiresAt = params.get("expiresAt");
+                if (expiresAt == null || ((Number) expiresAt).longValue() >= start) {
+                    registrationStore.restore(externalId, params);
+                    count[0]++;
+                }
+            });
+            log.info("Restored {} registrations from snapshot {} taken {} ms ago, in {} ms",
+                    count[0], path, start - snapshotTime, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error restoring snapshot from {}", path, e);
+        }
+        return count[0];
+    }
+}
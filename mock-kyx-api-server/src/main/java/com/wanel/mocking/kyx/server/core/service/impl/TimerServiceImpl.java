@@ -0,0 +1,32 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+import com.wanel.mocking.kyx.server.core.timer.HashedWheelTimer;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class TimerServiceImpl implements TimerService {
+
+    private final HashedWheelTimer timer;
+
+    public TimerServiceImpl(@Value("${kyx.timer.tick-ms:10}") long tickMs,
+                            @Value("${kyx.timer.ticks-per-wheel:512}") int ticksPerWheel) {
+        this.timer = new HashedWheelTimer("kyx-timer", tickMs, ticksPerWheel);
+    }
+
+    @Override
+    public Cancellable schedule(Runnable task, long delayMs) {
+        return timer.newTimeout(task, delayMs, TimeUnit.MILLISECONDS)::cancel;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+    }
+}
@@ -0,0 +1,225 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.app.error.InvalidWebhookUrlException;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAWebhookRegistration;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+import com.wanel.mocking.kyx.server.core.service.TimerService;
+import com.wanel.mocking.kyx.server.core.service.WebhookService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Each webhook watches alert events like an SSE client would. Alerts are batched per
+ * destination and a batch is POSTed when it is full or has lingered long enough. Failed
+ * batches are retried on the shared timer wheel following the configured backoff.
+ * One HttpClient is shared by all destinations, keeping their connections alive.
+ */
+@Service
+@Slf4j
+public class WebhookServiceImpl implements WebhookService {
+
+    private final RegistrationEventService registrationEventService;
+    private final TimerService timerService;
+    private final ObjectMapper objectMapper;
+    private final KyxConfiguration.Webhook config;
+    private final HttpClient httpClient;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebhookServiceImpl(RegistrationEventService registrationEventService, TimerService timerService,
+                              ObjectMapper objectMapper, KyxConfiguration kyxConfiguration) {
+        this.registrationEventService = registrationEventService;
+        this.timerService = timerService;
+        this.objectMapper = objectMapper;
+        this.config = kyxConfiguration.getWebhook();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                .build();
+    }
+
+    @Override
+    public CAWebhookRegistration register(String url, String userId) {
+        URI uri = parseUrl(url);
+        CAWebhookRegistration registration = CAWebhookRegistration.builder()
+                .id(UUID.randomUUID().toString())
+                .url(url)
+                .userId(userId)
+                .createdAt(DateTimeFormatter.ISO_INSTANT.format(Instant.now()))
+                .build();
+        Destination destination = new Destination(registration, uri);
+        // only published once subscribed, so that unregister always finds the subscription
+        destination.subscription = registrationEventService.subscribe(userId, null, destination);
+        destinations.put(registration.getId(), destination);
+        log.info("Registered webhook {} to {} for userId {}", registration.getId(), url, userId);
+        return registration;
+    }
+
+    @Override
+    public List<CAWebhookRegistration> list() {
+        List<CAWebhookRegistration> registrations = new ArrayList<>();
+        destinations.values().forEach(destination -> registrations.add(destination.registration));
+        return registrations;
+    }
+
+    @Override
+    public boolean unregister(String id) {
+        Destination destination = destinations.remove(id);
+        if (destination == null) {
+            return false;
+        }
+        destination.subscription.cancel();
+        log.info("Unregistered webhook {}", id);
+        return true;
+    }
+
+    /**
+     * Alerts can only be POSTed to absolute http(s) urls
+     */
+    private static URI parseUrl(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new InvalidWebhookUrlException("Invalid webhook url " + url + ": " + e.getReason());
+        }
+        String scheme = uri.getScheme();
+        if (!("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) || uri.getHost() == null) {
+            throw new InvalidWebhookUrlException("Webhook url must be an http or https url with a host: " + url);
+        }
+        return uri;
+    }
+
+    private class Destination implements RegistrationEventService.EventSink {
+        private final CAWebhookRegistration registration;
+        private final URI uri;
+        private final List<CARegistrationEvent> buffer = new ArrayList<>();
+        private TimerService.Cancellable lingerTimer;
+        private RegistrationEventService.Subscription subscription;
+        private volatile boolean closed;
+        private long dropped;
+
+        Destination(CAWebhookRegistration registration, URI uri) {
+            this.registration = registration;
+            this.uri = uri;
+        }
+
+        @Override
+        public void send(CARegistrationEvent event) {
+            if (closed || !CARegistrationEvent.ALERT.equals(event.getType())) {
+                return;
+            }
+            List<CARegistrationEvent> batch = null;
+            synchronized (this) {
+                if (buffer.size() >= config.getMaxPending()) {
+                    buffer.remove(0);
+                    if (dropped++ % 1000 == 0) {
+                        log.warn("Webhook {} can't keep up, dropped {} alerts", registration.getId(), dropped);
+                    }
+                }
+                buffer.add(event);
+                if (buffer.size() >= config.getBatchSize()) {
+                    batch = takeBatch();
+                } else if (lingerTimer == null) {
+                    lingerTimer = timerService.schedule(this::lingerExpired, config.getLingerMs());
+                }
+            }
+            if (batch != null) {
+                deliver(batch, 0);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void lingerExpired() {
+            List<CARegistrationEvent> batch;
+            synchronized (this) {
+                lingerTimer = null;
+                batch = takeBatch();
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch, 0);
+            }
+        }
+
+        // must hold the lock
+        private List<CARegistrationEvent> takeBatch() {
+            if (lingerTimer != null) {
+                lingerTimer.cancel();
+                lingerTimer = null;
+            }
+            List<CARegistrationEvent> head = buffer.subList(0, Math.min(buffer.size(), config.getBatchSize()));
+            List<CARegistrationEvent> batch = new ArrayList<>(head);
+            head.clear();
+            if (!buffer.isEmpty()) {
+                lingerTimer = timerService.schedule(this::lingerExpired, config.getLingerMs());
+            }
+            return batch;
+        }
+
+        private void deliver(List<CARegistrationEvent> batch, int attempt) {
+            if (closed) {
+                return;
+            }
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(batch);
+            } catch (Exception e) {
+                log.error("Could not serialize {} alerts for webhook {}", batch.size(), registration.getId(), e);
+                return;
+            }
+            // runs on the event writers and the timer, which must not see the failure
+            HttpRequest request;
+            try {
+                request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                        .header("Content-Type", "application/json")
+                        .header("X-Webhook-Id", registration.getId())
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build();
+            } catch (IllegalArgumentException e) {
+                log.error("Could not build the request of webhook {}, dropping {} alerts: {}",
+                        registration.getId(), batch.size(), e.getMessage());
+                return;
+            }
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error == null && response.statusCode() < 300) {
+                    return;
+                }
+                String reason = error != null ? error.getMessage() : "status " + response.statusCode();
+                List<Long> backoff = config.getRetryBackoffMs();
+                if (attempt < backoff.size()) {
+                    log.warn("Webhook {} delivery of {} alerts failed ({}), retry {} in {} ms",
+                            registration.getId(), batch.size(), reason, attempt + 1, backoff.get(attempt));
+                    timerService.schedule(() -> deliver(batch, attempt + 1), backoff.get(attempt));
+                } else {
+                    log.error("Webhook {} delivery of {} alerts failed ({}), giving up after {} attempts",
+                            registration.getId(), batch.size(), reason, attempt + 1);
+                }
+            });
+        }
+    }
+}
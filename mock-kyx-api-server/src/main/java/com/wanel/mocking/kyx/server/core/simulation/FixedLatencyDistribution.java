@@ -0,0 +1,25 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Always returns the same delay
+ */
+public class FixedLatencyDistribution implements LatencyDistribution {
+
+    private final long delayMs;
+
+    public FixedLatencyDistribution(long delayMs) {
+        this.delayMs = Math.max(0, delayMs);
+    }
+
+    @Override
+    public long sampleMillis(RandomGenerator random) {
+        return delayMs;
+    }
+
+    @Override
+    public String describe() {
+        return "fixed(" + delayMs + "ms)";
+    }
+}
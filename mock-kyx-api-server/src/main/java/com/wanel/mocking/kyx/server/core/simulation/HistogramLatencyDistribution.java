@@ -0,0 +1,62 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Empirical delay built from a histogram of observed provider latencies.
+ * A bucket is picked by its weight, then the delay is uniform inside the bucket.
+ */
+public class HistogramLatencyDistribution implements LatencyDistribution {
+
+    private final long[] upperMs;
+    private final long[] cumulativeCounts;
+    private final long totalCount;
+
+    public HistogramLatencyDistribution(List<Long> bucketUpperMs, List<Long> bucketCounts) {
+        if (bucketUpperMs == null || bucketCounts == null || bucketUpperMs.isEmpty()
+                || bucketUpperMs.size() != bucketCounts.size()) {
+            throw new IllegalArgumentException("histogram needs the same non-zero number of bucket bounds and counts");
+        }
+        this.upperMs = new long[bucketUpperMs.size()];
+        this.cumulativeCounts = new long[bucketCounts.size()];
+        long sum = 0;
+        for (int i = 0; i < upperMs.length; i++) {
+            upperMs[i] = bucketUpperMs.get(i);
+            sum += Math.max(0, bucketCounts.get(i));
+            cumulativeCounts[i] = sum;
+            if (i > 0 && upperMs[i] < upperMs[i - 1]) {
+                throw new IllegalArgumentException("histogram bucket bounds must be ascending");
+            }
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("histogram needs at least one observation");
+        }
+        this.totalCount = sum;
+    }
+
+    @Override
+    public long sampleMillis(RandomGenerator random) {
+        long pick = random.nextLong(totalCount);
+        // first bucket whose cumulative count exceeds the pick (skips empty buckets)
+        int lo = 0;
+        int hi = cumulativeCounts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulativeCounts[mid] > pick) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        int idx = lo;
+        long lower = idx == 0 ? 0 : upperMs[idx - 1];
+        long upper = upperMs[idx];
+        return upper > lower ? lower + random.nextLong(upper - lower + 1) : upper;
+    }
+
+    @Override
+    public String describe() {
+        return "histogram(" + upperMs.length + " buckets, n=" + totalCount + ")";
+    }
+}
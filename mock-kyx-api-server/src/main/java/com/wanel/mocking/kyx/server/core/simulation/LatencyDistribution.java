@@ -0,0 +1,22 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A distribution of simulated delays in milliseconds
+ */
+public interface LatencyDistribution {
+
+    /**
+     * Draw a delay from this distribution
+     *
+     * @param random Generator to draw from
+     * @return Delay in milliseconds, never negative
+     */
+    long sampleMillis(RandomGenerator random);
+
+    /**
+     * Short human readable description, recorded alongside each sample
+     */
+    String describe();
+}
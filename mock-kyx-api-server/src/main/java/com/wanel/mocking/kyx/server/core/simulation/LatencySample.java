@@ -0,0 +1,12 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+/**
+ * One simulated delay, with the profile and sequence number it was drawn with
+ * so that a run can be reported and replayed
+ *
+ * @param profile  Description of the distribution the delay was drawn from
+ * @param delayMs  The drawn delay in milliseconds
+ * @param sequence Per-endpoint sequence number of this draw
+ */
+public record LatencySample(String profile, long delayMs, long sequence) {
+}
@@ -0,0 +1,27 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Log-normal delay, the usual shape of real provider latencies (long right tail)
+ */
+public class LogNormalLatencyDistribution implements LatencyDistribution {
+
+    private final double mu;
+    private final double sigma;
+
+    public LogNormalLatencyDistribution(double mu, double sigma) {
+        this.mu = mu;
+        this.sigma = Math.max(0, sigma);
+    }
+
+    @Override
+    public long sampleMillis(RandomGenerator random) {
+        return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    @Override
+    public String describe() {
+        return "log-normal(mu=" + mu + ",sigma=" + sigma + ")";
+    }
+}
@@ -0,0 +1,29 @@
+package com.wanel.mocking.kyx.server.core.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Uniform delay between min and max (both inclusive), in steps of stepMs
+ */
+public class UniformLatencyDistribution implements LatencyDistribution {
+
+    private final long minMs;
+    private final long stepMs;
+    private final long steps;
+
+    public UniformLatencyDistribution(long minMs, long maxMs, long stepMs) {
+        this.minMs = Math.max(0, minMs);
+        this.stepMs = Math.max(1, stepMs);
+        this.steps = Math.max(0, maxMs - this.minMs) / this.stepMs + 1;
+    }
+
+    @Override
+    public long sampleMillis(RandomGenerator random) {
+        return minMs + random.nextLong(steps) * stepMs;
+    }
+
+    @Override
+    public String describe() {
+        return "uniform(" + minMs + ".." + (minMs + (steps - 1) * stepMs) + "ms/" + stepMs + ")";
+    }
+}
@@ -0,0 +1,173 @@
+package com.wanel.mocking.kyx.server.core.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+
+/**
+ * Binary point-in-time snapshot of a {@link RegistrationStore}.
+ * <p>
+ * Layout: magic, version, snapshot time, then one record per registration
+ * (externalId and typed params), terminated by an end marker. Written to a
+ * temporary file and atomically renamed, read back through a memory mapping.
+ */
+public final class RegistrationSnapshotFile {
+
+    private static final int MAGIC = 0x4B595853; // "KYXS"
+    private static final int VERSION = 1;
+
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+
+    private RegistrationSnapshotFile() {
+    }
+
+    /**
+     * Write every registration of the store to the target file
+     *
+     * @return Number of written registrations
+     */
+    public static int write(Path target, RegistrationStore store, long snapshotTimeMs) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        int[] count = new int[1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 20))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshotTimeMs);
+            IOException[] failure = new IOException[1];
+            store.forEach((externalId, params) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    writeRecord(out, externalId, params);
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.writeByte(END);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * Read a snapshot file, handing every registration to the consumer
+     *
+     * @return Time the snapshot was taken, in epoch millis
+     */
+    public static long read(Path source, BiConsumer<String, Map<String, Object>> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2GB can't be mapped: " + source);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a registration snapshot: " + source);
+            }
+            long snapshotTimeMs = buffer.getLong();
+            while (buffer.get() == RECORD) {
+                String externalId = readString(buffer);
+                int fieldCount = buffer.getShort();
+                Map<String, Object> params = new HashMap<>(fieldCount * 2);
+                for (int i = 0; i < fieldCount; i++) {
+                    params.put(readString(buffer), readValue(buffer));
+                }
+                consumer.accept(externalId, params);
+            }
+            return snapshotTimeMs;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated snapshot: " + source, e);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, String externalId, Map<String, Object> params) throws IOException {
+        out.writeByte(RECORD);
+        writeString(out, externalId);
+        out.writeShort(params.size());
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            out.writeByte(STRING);
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    private static Object readValue(MappedByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case STRING:
+                return readString(buffer);
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package com.wanel.mocking.kyx.server.core.template;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON of a response encoded once by Jackson, with slots for the few string fields that
+ * vary between responses. Writing it copies the constant bytes and splices in the slot values.
+ */
+public final class ResponseTemplate {
+
+    private final byte[][] segments;
+
+    private ResponseTemplate(byte[][] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Marker to set on a string field of the prototype to make it a slot
+     */
+    public static String slot(int index) {
+        return "@@slot" + index + "@@";
+    }
+
+    /**
+     * @param prototype Response bean whose variable string fields hold {@link #slot(int)} markers,
+     *                  numbered in the order the fields are serialized
+     */
+    public static ResponseTemplate of(ObjectMapper objectMapper, Object prototype) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(prototype);
+        List<byte[]> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; ; i++) {
+            byte[] marker = slot(i).getBytes(StandardCharsets.UTF_8);
+            int at = indexOf(json, marker, start);
+            if (at < 0) {
+                break;
+            }
+            segments.add(Arrays.copyOfRange(json, start, at));
+            start = at + marker.length;
+        }
+        byte[] tail = Arrays.copyOfRange(json, start, json.length);
+        if (indexOf(tail, "@@slot".getBytes(StandardCharsets.UTF_8), 0) >= 0) {
+            throw new IllegalArgumentException("Slots of " + prototype.getClass().getSimpleName() + " are not in serialization order");
+        }
+        segments.add(tail);
+        return new ResponseTemplate(segments.toArray(new byte[0][]));
+    }
+
+    public int slots() {
+        return segments.length - 1;
+    }
+
+    /**
+     * Length of the encoded response if it has no slots, -1 otherwise
+     */
+    public int constantLength() {
+        return segments.length == 1 ? segments[0].length : -1;
+    }
+
+    /**
+     * @param values One non-null value per slot, in slot order
+     */
+    public void write(OutputStream out, String... values) throws IOException {
+        if (values.length != slots()) {
+            throw new IllegalArgumentException("Expected " + slots() + " slot values, got " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            out.write(segments[i]);
+            writeEscaped(out, values[i]);
+        }
+        out.write(segments[values.length]);
+    }
+
+    /**
+     * Write a value inside the template's quotes, escaped only when it has to be
+     * (externalIds and ISO timestamps never do)
+     */
+    private static void writeEscaped(OutputStream out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+                out.write(JsonStringEncoder.getInstance().quoteAsUTF8(value));
+                return;
+            }
+        }
+        out.write(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.wanel.mocking.kyx.server.core.thread;
+
+import java.util.concurrent.ThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thread factories of the server's own pools, following spring.threads.virtual.enabled
+ * like the Tomcat, @Scheduled and task executors configured by Spring Boot do
+ */
+@Slf4j
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * @param name Name of the threads
+     * @param virtual Create virtual threads if the JDK supports them (21+)
+     * @return A factory of virtual threads, or of daemon platform threads
+     */
+    public static ThreadFactory daemon(String name, boolean virtual) {
+        if (virtual) {
+            ThreadFactory factory = virtualThreadFactory(name);
+            if (factory != null) {
+                return factory;
+            }
+            log.warn("Virtual threads are not supported by this JDK, {} uses platform threads", name);
+        }
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Thread.ofVirtual().name(name).factory(), looked up reflectively since the build targets Java 17
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class).invoke(builder, name);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
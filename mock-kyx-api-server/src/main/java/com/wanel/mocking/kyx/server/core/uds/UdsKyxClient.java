@@ -0,0 +1,137 @@
+package com.wanel.mocking.kyx.server.core.uds;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRequest;
+
+/**
+ * Minimal client of the Unix domain socket listener, for load generators on the same host.
+ * Not thread safe: use one client per thread.
+ */
+public class UdsKyxClient implements AutoCloseable {
+
+    private static final TypeReference<List<RiskCheckResult>> RESULTS = new TypeReference<>() {};
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public UdsKyxClient(Path socketPath) throws IOException {
+        this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(socketPath));
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+    }
+
+    public RiskCheckResult checkRisk(Map<String, Object> params) throws IOException {
+        return call(UdsProtocol.OP_CHECK_RISK, params, RiskCheckResult.class);
+    }
+
+    /**
+     * Check many parameter sets with a single script call on the server
+     */
+    public List<RiskCheckResult> checkRiskBatch(List<Map<String, Object>> paramsList) throws IOException {
+        send(UdsProtocol.OP_CHECK_RISK_BATCH, paramsList);
+        out.flush();
+        byte[] frame = receive();
+        return UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, RESULTS);
+    }
+
+    /**
+     * Pipeline one check per parameter set: all requests are written before any response is read.
+     * Keep the list to a few thousand entries, so the unread responses fit in the socket buffers.
+     */
+    public List<RiskCheckResult> checkRiskPipelined(List<Map<String, Object>> paramsList) throws IOException {
+        for (Map<String, Object> params : paramsList) {
+            send(UdsProtocol.OP_CHECK_RISK, params);
+        }
+        out.flush();
+        List<RiskCheckResult> results = new ArrayList<>(paramsList.size());
+        for (int i = 0; i < paramsList.size(); i++) {
+            byte[] frame = receive();
+            results.add(UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, RiskCheckResult.class));
+        }
+        return results;
+    }
+
+    public CAKyaRegisterResponse registerKya(String userId, CAKyaRequest request) throws IOException {
+        return call(UdsProtocol.OP_REGISTER_KYA, new UdsRegisterRequest<>(userId, request), CAKyaRegisterResponse.class);
+    }
+
+    public CAKytRegisterResponse registerKyt(String userId, CAKytRequest request) throws IOException {
+        return call(UdsProtocol.OP_REGISTER_KYT, new UdsRegisterRequest<>(userId, request), CAKytRegisterResponse.class);
+    }
+
+    public CAKyXAlertResponse getKyaAlerts(String externalId) throws IOException {
+        return call(UdsProtocol.OP_KYA_ALERTS, externalId, CAKyXAlertResponse.class);
+    }
+
+    public CAKyXAlertResponse getKytAlerts(String externalId) throws IOException {
+        return call(UdsProtocol.OP_KYT_ALERTS, externalId, CAKyXAlertResponse.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private <T> T call(byte op, Object argument, Class<T> resultType) throws IOException {
+        send(op, argument);
+        out.flush();
+        byte[] frame = receive();
+        return UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, resultType);
+    }
+
+    private void send(byte op, Object argument) throws IOException {
+        UdsProtocol.writeFrame(out, op, UdsProtocol.MAPPER.writeValueAsBytes(argument));
+    }
+
+    /**
+     * Read the next response frame, throwing if its status isn't OK
+     */
+    private byte[] receive() throws IOException {
+        byte[] frame = UdsProtocol.readFrame(in);
+        if (frame == null) {
+            throw new IOException("Connection closed by server");
+        }
+        if (frame[0] != UdsProtocol.STATUS_OK) {
+            String message = UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, String.class);
+            throw new UdsKyxException(frame[0], message);
+        }
+        return frame;
+    }
+
+    /**
+     * A request rejected or failed by the server
+     */
+    public static class UdsKyxException extends IOException {
+        private final byte status;
+
+        public UdsKyxException(byte status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public byte getStatus() {
+            return status;
+        }
+    }
+}
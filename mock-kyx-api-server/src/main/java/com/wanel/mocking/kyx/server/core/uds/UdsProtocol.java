@@ -0,0 +1,74 @@
+package com.wanel.mocking.kyx.server.core.uds;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Wire protocol of the Unix domain socket listener.
+ * <p>
+ * Request frame: int32 length, then 1 byte operation and the Smile-encoded argument.
+ * Response frame: int32 length, then 1 byte status and the Smile-encoded result
+ * (or an error message string when the status isn't OK).
+ * Responses come back in request order, so clients may pipeline requests.
+ */
+public final class UdsProtocol {
+
+    /** Argument: params map. Result: RiskCheckResult */
+    public static final byte OP_CHECK_RISK = 1;
+    /** Argument: list of params maps. Result: list of RiskCheckResult */
+    public static final byte OP_CHECK_RISK_BATCH = 2;
+    /** Argument: UdsRegisterRequest with a CAKyaRequest. Result: CAKyaRegisterResponse */
+    public static final byte OP_REGISTER_KYA = 3;
+    /** Argument: UdsRegisterRequest with a CAKytRequest. Result: CAKytRegisterResponse */
+    public static final byte OP_REGISTER_KYT = 4;
+    /** Argument: externalId string. Result: CAKyXAlertResponse */
+    public static final byte OP_KYA_ALERTS = 5;
+    /** Argument: externalId string. Result: CAKyXAlertResponse */
+    public static final byte OP_KYT_ALERTS = 6;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_BAD_REQUEST = 1;
+    public static final byte STATUS_QUOTA_EXCEEDED = 2;
+    public static final byte STATUS_ERROR = 3;
+
+    public static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    public static final ObjectMapper MAPPER = new ObjectMapper(new SmileFactory());
+
+    private UdsProtocol() {
+    }
+
+    /**
+     * Write one frame, without flushing
+     */
+    public static void writeFrame(DataOutputStream out, byte head, byte[] body) throws IOException {
+        out.writeInt(body.length + 1);
+        out.writeByte(head);
+        out.write(body);
+    }
+
+    /**
+     * Read one frame, its first byte being the operation or status
+     *
+     * @return The frame, or null at end of stream
+     */
+    public static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 1 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+}
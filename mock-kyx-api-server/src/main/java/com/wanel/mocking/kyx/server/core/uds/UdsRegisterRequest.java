@@ -0,0 +1,20 @@
+package com.wanel.mocking.kyx.server.core.uds;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Argument of the register operations, the userId being part of the path over HTTP
+ *
+ * @param <R> CAKyaRequest or CAKytRequest
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UdsRegisterRequest<R> {
+    private String userId;
+    private R request;
+}
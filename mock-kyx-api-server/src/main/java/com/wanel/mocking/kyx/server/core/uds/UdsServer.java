@@ -0,0 +1,202 @@
+package com.wanel.mocking.kyx.server.core.uds;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.app.controller.ChainalysisController;
+import com.wanel.mocking.kyx.server.app.error.QuotaExceededException;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRequest;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+import com.wanel.mocking.kyx.server.core.thread.ThreadFactories;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unix domain socket listener for clients on the same host, skipping TCP and HTTP parsing.
+ * Each connection is served by its own thread with blocking reads; responses are flushed
+ * once no further pipelined request is already buffered. Chainalysis operations go through
+ * the controller handlers, so they share the store and evaluation path of the HTTP endpoints.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "kyx.uds.enabled", havingValue = "true")
+public class UdsServer {
+
+    private static final TypeReference<Map<String, Object>> PARAMS = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> PARAMS_LIST = new TypeReference<>() {};
+    private static final JavaType REGISTER_KYA = UdsProtocol.MAPPER.getTypeFactory()
+            .constructParametricType(UdsRegisterRequest.class, CAKyaRequest.class);
+    private static final JavaType REGISTER_KYT = UdsProtocol.MAPPER.getTypeFactory()
+            .constructParametricType(UdsRegisterRequest.class, CAKytRequest.class);
+
+    private final RiskCheckService riskCheckService;
+    private final Optional<ChainalysisController> chainalysisController;
+    private final Validator validator;
+    private final Path path;
+    private final ExecutorService connections;
+    private ServerSocketChannel serverChannel;
+
+    @Autowired
+    public UdsServer(RiskCheckService riskCheckService,
+                     Optional<ChainalysisController> chainalysisController,
+                     Validator validator,
+                     KyxConfiguration kyxConfiguration,
+                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.riskCheckService = riskCheckService;
+        this.chainalysisController = chainalysisController;
+        this.validator = validator;
+        this.path = Path.of(kyxConfiguration.getUds().getPath());
+        this.connections = Executors.newCachedThreadPool(ThreadFactories.daemon("kyx-uds-connection", virtualThreads));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.deleteIfExists(path);
+        serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        serverChannel.bind(UnixDomainSocketAddress.of(path));
+        Thread acceptor = new Thread(this::acceptLoop, "kyx-uds-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Listening on Unix domain socket {}", path);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        serverChannel.close();
+        connections.shutdownNow();
+        Files.deleteIfExists(path);
+    }
+
+    private void acceptLoop() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                connections.execute(() -> serve(channel));
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    log.error("Error accepting Unix domain socket connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            byte[] frame;
+            while ((frame = UdsProtocol.readFrame(in)) != null) {
+                handle(frame, out);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Unix domain socket connection closed: {}", e.getMessage());
+        }
+    }
+
+    private void handle(byte[] frame, DataOutputStream out) throws IOException {
+        byte status = UdsProtocol.STATUS_OK;
+        Object result;
+        try {
+            result = execute(frame[0], frame);
+        } catch (IllegalArgumentException e) {
+            status = UdsProtocol.STATUS_BAD_REQUEST;
+            result = e.getMessage();
+        } catch (QuotaExceededException e) {
+            status = UdsProtocol.STATUS_QUOTA_EXCEEDED;
+            result = e.getMessage();
+        } catch (Exception e) {
+            log.error("Error handling Unix domain socket operation {}", frame[0], e);
+            status = UdsProtocol.STATUS_ERROR;
+            result = String.valueOf(e.getMessage());
+        }
+        UdsProtocol.writeFrame(out, status, UdsProtocol.MAPPER.writeValueAsBytes(result));
+    }
+
+    private Object execute(byte op, byte[] frame) throws IOException {
+        switch (op) {
+            case UdsProtocol.OP_CHECK_RISK:
+                return riskCheckService.checkRisk(read(frame, PARAMS));
+            case UdsProtocol.OP_CHECK_RISK_BATCH:
+                return riskCheckService.checkRisk(read(frame, PARAMS_LIST));
+            case UdsProtocol.OP_REGISTER_KYA: {
+                UdsRegisterRequest<CAKyaRequest> register = UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, REGISTER_KYA);
+                validate(register.getRequest());
+                return chainalysis().registerKya(register.getUserId(), register.getRequest()).getBody();
+            }
+            case UdsProtocol.OP_REGISTER_KYT: {
+                UdsRegisterRequest<CAKytRequest> register = UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, REGISTER_KYT);
+                validate(register.getRequest());
+                return chainalysis().registerKyt(register.getUserId(), register.getRequest()).getBody();
+            }
+            case UdsProtocol.OP_KYA_ALERTS:
+                return bodyOf(chainalysis().getKyaAlerts(read(frame, String.class)));
+            case UdsProtocol.OP_KYT_ALERTS:
+                return bodyOf(chainalysis().getKytAlerts(read(frame, String.class)));
+            default:
+                throw new IllegalArgumentException("Unknown operation " + op);
+        }
+    }
+
+    private static <T> T read(byte[] frame, TypeReference<T> type) throws IOException {
+        return UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, type);
+    }
+
+    private static <T> T read(byte[] frame, Class<T> type) throws IOException {
+        return UdsProtocol.MAPPER.readValue(frame, 1, frame.length - 1, type);
+    }
+
+    private static Object bodyOf(ResponseEntity<?> response) {
+        return response.getBody();
+    }
+
+    private void validate(Object request) {
+        if (request == null) {
+            throw new IllegalArgumentException("request cannot be null");
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private ChainalysisController chainalysis() {
+        return chainalysisController.orElseThrow(() -> new IllegalArgumentException("Chainalysis provider is disabled"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.wanel.mocking.kyx.server.lean;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.wanel.mocking.kyx.server.app.config.AppConfig;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.app.controller.ChainalysisController;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.core.service.PythonScriptExecutor;
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+import com.wanel.mocking.kyx.server.core.service.impl.HmacExternalIdCodec;
+import com.wanel.mocking.kyx.server.core.service.impl.InMemoryIdempotencyIndex;
+import com.wanel.mocking.kyx.server.core.service.impl.InMemoryRegistrationStore;
+import com.wanel.mocking.kyx.server.core.service.impl.LatencySimulationServiceImpl;
+import com.wanel.mocking.kyx.server.core.service.impl.PythonScriptExecutorImpl;
+import com.wanel.mocking.kyx.server.core.service.impl.RegistrationEventServiceImpl;
+import com.wanel.mocking.kyx.server.core.service.impl.RiskCheckServiceImpl;
+import com.wanel.mocking.kyx.server.core.service.impl.TimerServiceImpl;
+import com.wanel.mocking.kyx.server.core.thread.ThreadFactories;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fast-start server for load rigs: the GoPlus and Chainalysis routes on the JDK's HttpServer,
+ * with the services and controllers wired by hand instead of by a Spring context.
+ * Reads the same application.yml, overridden by --key=value arguments and system properties.
+ * The port is bound while the Python interpreter is still warming up; the first script
+ * evaluations wait for it.
+ * <pre>
+ * java -cp target/mock-kyx-api-server-*.jar -Dloader.main=com.wanel.mocking.kyx.server.lean.LeanKyxServer \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher --server.port=8080
+ * </pre>
+ */
+@Slf4j
+public class LeanKyxServer {
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService maintenance;
+    private final TimerServiceImpl timerService;
+    private final RegistrationEventServiceImpl registrationEventService;
+
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        LeanKyxServer server = new LeanKyxServer(binder(args));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "lean-shutdown"));
+        log.info("Lean KYX server started on port {} in {} ms", server.port(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public LeanKyxServer(Binder binder) throws IOException {
+        KyxConfiguration kyxConfiguration = binder.bind("kyx", KyxConfiguration.class).orElseGet(KyxConfiguration::new);
+        if (kyxConfiguration.getPython() == null) {
+            kyxConfiguration.setPython(new KyxConfiguration.Python());
+        }
+        if (kyxConfiguration.getPython().getFunctionName() == null) {
+            kyxConfiguration.getPython().setFunctionName("kyxCheck");
+        }
+        ObjectMapper objectMapper = AppConfig.configure(new ObjectMapper());
+        boolean virtualThreads = binder.bind("spring.threads.virtual.enabled", Boolean.class).orElse(false);
+
+        // Jython takes longer to start than everything else together, so it warms up in the background,
+        // as does the validator; the port is bound meanwhile and the first requests wait for them
+        CompletableFuture<PythonScriptExecutor> pythonScriptExecutor = CompletableFuture.supplyAsync(
+                () -> new PythonScriptExecutorImpl(kyxConfiguration, objectMapper));
+        CompletableFuture<Validator> validator = CompletableFuture.supplyAsync(
+                () -> Validation.buildDefaultValidatorFactory().getValidator());
+        RiskCheckService riskCheckService = new RiskCheckServiceImpl(new PythonScriptExecutor() {
+            @Override
+            public Map<String, Object> executeFunction(String functionName, Map<String, Object> params) {
+                return pythonScriptExecutor.join().executeFunction(functionName, params);
+            }
+
+            @Override
+            public List<Map<String, Object>> executeFunctionBatch(String functionName, List<Map<String, Object>> paramsList) {
+                return pythonScriptExecutor.join().executeFunctionBatch(functionName, paramsList);
+            }
+        }, kyxConfiguration);
+
+        this.timerService = new TimerServiceImpl(
+                binder.bind("kyx.timer.tick-ms", Long.class).orElse(10L),
+                binder.bind("kyx.timer.ticks-per-wheel", Integer.class).orElse(512));
+        this.registrationEventService = new RegistrationEventServiceImpl(riskCheckService,
+                binder.bind("chainalysis.events.buffer-size", Integer.class).orElse(256),
+                binder.bind("chainalysis.events.writer-threads", Integer.class).orElse(4),
+                binder.bind("chainalysis.events.batch-size", Integer.class).orElse(32),
+                binder.bind("chainalysis.events.send-timeout-ms", Long.class).orElse(5000L),
+                binder.bind("chainalysis.events.risk-threads", Integer.class).orElse(2),
+                virtualThreads);
+
+        GoPlusController goPlusController = null;
+        if (providerEnabled(kyxConfiguration, 0)) {
+            goPlusController = new GoPlusController(riskCheckService, objectMapper);
+            goPlusController.setBatchMaxAddresses(binder.bind("goplus.batch.max-addresses", Integer.class).orElse(100000));
+            goPlusController.setBatchChunkSize(binder.bind("goplus.batch.chunk-size", Integer.class).orElse(1000));
+        }
+        RegistrationStore registrationStore = new InMemoryRegistrationStore();
+        ChainalysisController chainalysisController = null;
+        if (providerEnabled(kyxConfiguration, 1)) {
+            chainalysisController = new ChainalysisController(riskCheckService,
+                    new LatencySimulationServiceImpl(kyxConfiguration),
+                    registrationStore,
+                    new HmacExternalIdCodec(
+                            binder.bind("chainalysis.registration.stateless", Boolean.class).orElse(false),
+                            binder.bind("chainalysis.registration.token-secret", String.class).orElse("")),
+                    kyxConfiguration,
+                    timerService,
+                    registrationEventService,
+                    new InMemoryIdempotencyIndex(
+                            binder.bind("chainalysis.registration.idempotency-max-entries", Integer.class).orElse(100000)));
+            chainalysisController.setExpirationTimeMs(
+                    binder.bind("chainalysis.registration.expiration-time-ms", Long.class).orElse(3600000L));
+            chainalysisController.setMaxWaitMs(binder.bind("chainalysis.registration.max-wait-ms", Long.class).orElse(30000L));
+        }
+
+        // The jobs Spring would run with @Scheduled
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(ThreadFactories.daemon("lean-maintenance", false));
+        maintenance.scheduleAtFixedRate(() -> registrationStore.removeExpired(Instant.now().toEpochMilli()),
+                10, 10, TimeUnit.MINUTES);
+        pythonScriptExecutor.thenAccept(executor -> maintenance.scheduleWithFixedDelay(
+                ((PythonScriptExecutorImpl) executor)::checkForScriptChanges, 5, 5, TimeUnit.SECONDS));
+
+        this.requestExecutor = Executors.newFixedThreadPool(binder.bind("kyx.lean.threads", Integer.class).orElse(200),
+                ThreadFactories.daemon("lean-http", virtualThreads));
+        if (chainalysisController != null) {
+            chainalysisController.setCompletionExecutor(requestExecutor);
+        }
+        this.server = HttpServer.create(new InetSocketAddress(binder.bind("server.port", Integer.class).orElse(8080)),
+                binder.bind("kyx.lean.backlog", Integer.class).orElse(1024));
+        server.createContext("/", new LeanRouter(goPlusController, chainalysisController, objectMapper,
+                validator, requestExecutor));
+        server.setExecutor(requestExecutor);
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        maintenance.shutdownNow();
+        registrationEventService.shutdown();
+        timerService.shutdown();
+    }
+
+    private static boolean providerEnabled(KyxConfiguration kyxConfiguration, int index) {
+        List<KyxConfiguration.Provider> providers = kyxConfiguration.getProviders();
+        return providers != null && providers.size() > index && providers.get(index).isEnabled();
+    }
+
+    /**
+     * Properties from the command line, then system properties, then application.yml,
+     * with ${...} placeholders resolved like Spring would
+     */
+    static Binder binder(String[] args) throws IOException {
+        MutablePropertySources sources = new MutablePropertySources();
+        sources.addLast(new SimpleCommandLinePropertySource(args));
+        sources.addLast(new PropertiesPropertySource("systemProperties", System.getProperties()));
+        new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))
+                .forEach(sources::addLast);
+        return new Binder(ConfigurationPropertySources.from(sources), new PropertySourcesPlaceholdersResolver(sources));
+    }
+}
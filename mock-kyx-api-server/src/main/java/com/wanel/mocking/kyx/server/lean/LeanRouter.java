@@ -0,0 +1,305 @@
+package com.wanel.mocking.kyx.server.lean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.wanel.mocking.kyx.server.app.controller.ChainalysisController;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.app.error.BatchTooLargeException;
+import com.wanel.mocking.kyx.server.app.error.GlobalExceptionHandler;
+import com.wanel.mocking.kyx.server.app.error.QuotaExceededException;
+import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRequest;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusBatchAddressRequest;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes of the lean server, mapped onto the GoPlus and Chainalysis controllers.
+ * Responses and error bodies are the same as the Spring server's.
+ */
+@Slf4j
+class LeanRouter implements HttpHandler {
+
+    private static final String WILDCARD = "{}";
+
+    private final ObjectMapper objectMapper;
+    private final CompletableFuture<Validator> validator;
+    private final Executor requestExecutor;
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+    private final List<Route> routes = new ArrayList<>();
+
+    LeanRouter(GoPlusController goPlus, ChainalysisController chainalysis, ObjectMapper objectMapper,
+               CompletableFuture<Validator> validator, Executor requestExecutor) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.requestExecutor = requestExecutor;
+
+        route("GET", "actuator/health", (exchange, vars, query) -> respond(exchange, ResponseEntity.ok(Map.of("status", "UP"))));
+        if (goPlus != null) {
+            route("GET", "address/{}", (exchange, vars, query) -> respond(exchange, goPlus.checkAddress(vars.get(0))));
+            route("GET", "address", (exchange, vars, query) -> respond(exchange, goPlus.checkAddresses(
+                    required(query, "address"), query.get("chain_id"), accept(exchange))));
+            route("POST", "address/batch", (exchange, vars, query) -> respond(exchange, goPlus.checkAddressesBatch(
+                    body(exchange, GoPlusBatchAddressRequest.class), accept(exchange))));
+        }
+        if (chainalysis != null) {
+            route("POST", "check", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.checkTransaction(body(exchange, TransactionCheckRequest.class))));
+            route("POST", "api/kyt/v2/users/{}/withdrawal-attempts", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.registerKya(vars.get(0), body(exchange, CAKyaRequest.class))));
+            route("GET", "api/kyt/v2/withdrawal-attempts/{}", (exchange, vars, query) -> {
+                String externalId = vars.get(0);
+                awaitThenRespond(exchange, chainalysis, externalId, waitMs(query),
+                        () -> chainalysis.checkKyaRegistration(externalId));
+            });
+            route("GET", "api/kyt/v2/withdrawal-attempts/{}/alerts", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.getKyaAlerts(vars.get(0))));
+            route("POST", "api/kyt/v2/users/{}/withdrawal-attempts/screen", (exchange, vars, query) -> {
+                CAKyaRegisterResponse original = chainalysis.registerKya(vars.get(0), body(exchange, CAKyaRequest.class)).getBody();
+                awaitThenRespond(exchange, chainalysis, original.getExternalId(), fast(query) ? 0 : Long.MAX_VALUE,
+                        () -> chainalysis.kyaScreeningResult(original));
+            });
+            route("POST", "api/kyt/v2/users/{}/transfers", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.registerKyt(vars.get(0), body(exchange, CAKytRequest.class))));
+            route("GET", "api/kyt/v2/transfers/{}", (exchange, vars, query) -> {
+                String externalId = vars.get(0);
+                awaitThenRespond(exchange, chainalysis, externalId, waitMs(query),
+                        () -> chainalysis.checkKytRegistration(externalId));
+            });
+            route("GET", "api/kyt/v2/transfers/{}/alerts", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.getKytAlerts(vars.get(0))));
+            route("POST", "api/kyt/v2/users/{}/transfers/screen", (exchange, vars, query) -> {
+                CAKytRegisterResponse original = chainalysis.registerKyt(vars.get(0), body(exchange, CAKytRequest.class)).getBody();
+                awaitThenRespond(exchange, chainalysis, original.getExternalId(), fast(query) ? 0 : Long.MAX_VALUE,
+                        () -> chainalysis.kytScreeningResult(original));
+            });
+            route("GET", "api/kyt/v1/alerts", (exchange, vars, query) -> respond(exchange, chainalysis.monitorAlerts(
+                    query.get("createdAt_lte"), query.get("createdAt_gte"), intParam(query, "limit", 100), intParam(query, "offset", 0))));
+            route("GET", "api/kyt/v2/users/registration-counts", (exchange, vars, query) ->
+                    respond(exchange, chainalysis.userRegistrationCounts()));
+            route("GET", "api/kyt/v2/users/{}/registrations", (exchange, vars, query) -> respond(exchange,
+                    chainalysis.listUserRegistrations(vars.get(0), intParam(query, "limit", 100), intParam(query, "offset", 0))));
+            route("GET", "api/kyt/v2/users/{}/alerts", (exchange, vars, query) -> respond(exchange,
+                    chainalysis.monitorUserAlerts(vars.get(0), intParam(query, "limit", 100), intParam(query, "offset", 0))));
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        try {
+            String[] segments = segments(exchange.getRequestURI().getRawPath());
+            List<String> vars = new ArrayList<>(2);
+            for (Route route : routes) {
+                if (route.method.equals(exchange.getRequestMethod()) && route.matches(segments, vars)) {
+                    route.handler.handle(exchange, vars, query(exchange.getRequestURI().getRawQuery()));
+                    return;
+                }
+                vars.clear();
+            }
+            respond(exchange, error(HttpStatus.NOT_FOUND, "No route for " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()));
+        } catch (Exception e) {
+            respondError(exchange, e);
+        }
+    }
+
+    /**
+     * Answer once the registration is ready or the wait is over, releasing the request thread meanwhile
+     */
+    private void awaitThenRespond(HttpExchange exchange, ChainalysisController chainalysis, String externalId, long waitMs,
+                                  ResponseSupplier response) {
+        chainalysis.whenReady(externalId, waitMs, () -> requestExecutor.execute(() -> {
+            try {
+                respond(exchange, response.get());
+            } catch (Exception e) {
+                respondError(exchange, e);
+            }
+        }));
+    }
+
+    private void respond(HttpExchange exchange, ResponseEntity<?> response) throws IOException {
+        HttpHeaders headers = response.getHeaders();
+        headers.forEach((name, values) -> exchange.getResponseHeaders().put(name, values));
+        Object body = response.getBody();
+        int status = response.getStatusCode().value();
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (body instanceof StreamingResponseBody streamingBody) {
+                exchange.getResponseHeaders().putIfAbsent(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE));
+                exchange.sendResponseHeaders(status, 0);
+                streamingBody.writeTo(out);
+            } else if (body != null) {
+                byte[] bytes = objectMapper.writeValueAsBytes(body);
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                exchange.sendResponseHeaders(status, bytes.length);
+                out.write(bytes);
+            } else {
+                exchange.sendResponseHeaders(status, -1);
+            }
+        }
+    }
+
+    /**
+     * Same bodies as GlobalExceptionHandler gives the Spring server
+     */
+    private void respondError(HttpExchange exchange, Exception e) {
+        ResponseEntity<Object> response;
+        if (e instanceof ValidationException validation) {
+            response = validation.response;
+        } else if (e instanceof JsonProcessingException || e instanceof IllegalArgumentException) {
+            response = error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } else if (e instanceof QuotaExceededException quotaExceeded) {
+            response = exceptionHandler.handleQuotaExceeded(quotaExceeded);
+        } else if (e instanceof BatchTooLargeException batchTooLarge) {
+            response = exceptionHandler.handleBatchTooLarge(batchTooLarge);
+        } else if (e instanceof RejectedExecutionException rejected) {
+            response = exceptionHandler.handleRejectedExecution(rejected);
+        } else {
+            response = exceptionHandler.handleAllExceptions(e);
+        }
+        try {
+            respond(exchange, response);
+        } catch (IOException | RuntimeException ioe) {
+            // headers may already be sent, e.g. mid-stream
+            log.debug("Could not send error response: {}", ioe.getMessage());
+            exchange.close();
+        }
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", status.value());
+        response.put("message", message);
+        return new ResponseEntity<>(response, status);
+    }
+
+    /**
+     * Read and validate a JSON request body, like @Valid @RequestBody
+     */
+    private <T> T body(HttpExchange exchange, Class<T> type) throws IOException {
+        T request = objectMapper.readValue(exchange.getRequestBody(), type);
+        if (request == null) {
+            throw new IllegalArgumentException("Required request body is missing");
+        }
+        Set<ConstraintViolation<T>> violations = validator.join().validate(request);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new HashMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            Map<String, Object> response = new HashMap<>();
+            response.put("code", 400);
+            response.put("message", "Validation error");
+            response.put("errors", errors);
+            throw new ValidationException(new ResponseEntity<>(response, HttpStatus.BAD_REQUEST));
+        }
+        return request;
+    }
+
+    private static String accept(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT);
+    }
+
+    private static long waitMs(Map<String, String> query) {
+        return query.containsKey("waitMs") ? Long.parseLong(query.get("waitMs")) : 0;
+    }
+
+    private static boolean fast(Map<String, String> query) {
+        return Boolean.parseBoolean(query.get("fast"));
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        return query.containsKey(name) ? Integer.parseInt(query.get(name)) : defaultValue;
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Required parameter '" + name + "' is not present");
+        }
+        return value;
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            query.putIfAbsent(name, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private void route(String method, String pattern, RouteHandler handler) {
+        routes.add(new Route(method, pattern.split("/"), handler));
+    }
+
+    private record Route(String method, String[] pattern, RouteHandler handler) {
+
+        /**
+         * Match the path segments, collecting the {} ones (URL-decoded) into vars
+         */
+        boolean matches(String[] segments, List<String> vars) {
+            if (segments.length != pattern.length) {
+                return false;
+            }
+            for (int i = 0; i < pattern.length; i++) {
+                if (WILDCARD.equals(pattern[i])) {
+                    vars.add(URLDecoder.decode(segments[i], StandardCharsets.UTF_8));
+                } else if (!pattern[i].equals(segments[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RouteHandler {
+        void handle(HttpExchange exchange, List<String> vars, Map<String, String> query) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ResponseSupplier {
+        ResponseEntity<?> get() throws Exception;
+    }
+
+    private static class ValidationException extends RuntimeException {
+        private final ResponseEntity<Object> response;
+
+        ValidationException(ResponseEntity<Object> response) {
+            super("Validation error", null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -22,6 +22,7 @@ def kyxCheck(params):
     dict: A dictionary containing risk assessment results
          - inRisk: Boolean indicating if the transaction is risky
          - riskDetail: String describing the risk details (if any)
+         - categories: GoPlus flag names of the risks found (optional), e.g. ["mixer", "sanctioned"]
     """
     # Get parameters
     from_address = params.get("fromAddress", "")
@@ -58,8 +59,10 @@ def kyxCheck(params):
     # Determine if risk exists and provide details
     is_risky = amount_risk or address_risk
     risk_detail = ""
+    categories = []
     
     if is_risky:
+        categories.append("money_laundering")
         risk_detail = "money laundry or fraud"
         
         if amount_risk:
@@ -71,5 +74,18 @@ def kyxCheck(params):
     # Return risk assessment
     return {
         "inRisk": is_risky,
-        "riskDetail": risk_detail
-    } 
\ No newline at end of file
+        "riskDetail": risk_detail,
+        "categories": categories
+    } 
+
+def kyxCheckBatch(params_list):
+    """
+    Check many transactions or addresses in one call.
+    
+    Parameters:
+    params_list (list): A list of parameter dicts, as passed to kyxCheck
+    
+    Returns:
+    list: One kyxCheck result dict per parameter dict, in the same order
+    """
+    return [kyxCheck(params) for params in params_list]
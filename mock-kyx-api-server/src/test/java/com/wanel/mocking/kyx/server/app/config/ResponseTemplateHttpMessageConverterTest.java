@@ -0,0 +1,59 @@
+package com.wanel.mocking.kyx.server.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+
+public class ResponseTemplateHttpMessageConverterTest {
+
+    private ObjectMapper objectMapper;
+    private ResponseTemplateHttpMessageConverter converter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        objectMapper = AppConfig.configure(new ObjectMapper());
+        converter = new ResponseTemplateHttpMessageConverter(objectMapper);
+    }
+
+    @Test
+    public void testWrite_WhenBodyHasTemplate_ShouldMatchJackson() throws Exception {
+        // Arrange
+        GoPlusRiskEoaAddressResponse.Result risky = GoPlusController.noRiskResult();
+        risky.setCategories(RiskCategory.MIXER.bit() | RiskCategory.SANCTIONED.bit());
+        CAKyXAlertResponse alerts = new CAKyXAlertResponse();
+        alerts.setAlerts(List.of(CAKyXAlertResponse.Alert.builder().alertLevel("HIGH").build()));
+        List<Object> bodies = List.of(
+                GoPlusController.okResponse(GoPlusController.noRiskResult()),
+                GoPlusController.okResponse(risky),
+                new CAKyXAlertResponse(),
+                alerts,
+                CAKyaRegisterResponse.builder().externalId("a1b2").build(),
+                CAKyaRegisterResponse.builder().externalId("a1b2").updatedAt("2026-01-01T00:00:00Z").build(),
+                CAKyaRegisterResponse.builder().externalId("a1b2").asset("ETH").usdAmount(BigDecimal.TEN).build(),
+                CAKytRegisterResponse.builder().externalId("quote\"andé").build(),
+                CAKytRegisterResponse.builder().externalId("c3d4").updatedAt("2026-01-01T00:00:00Z").build());
+
+        for (Object body : bodies) {
+            // Act
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            converter.write(body, out);
+
+            // Assert
+            assertEquals(objectMapper.writeValueAsString(body), out.toString(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.wanel.mocking.kyx.server.app.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
@@ -105,4 +114,37 @@ public class GoPlusControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void testCheckAddresses_WhenManyAddresses_ShouldCheckThemInOneBatch() throws Exception {
+        // Arrange
+        RiskCheckResult risky = RiskCheckResult.builder().inRisk(true).riskDetail("money laundry or fraud").build();
+        RiskCheckResult clean = RiskCheckResult.builder().inRisk(false).riskDetail("").build();
+        when(riskCheckService.checkRisk(anyList())).thenReturn(List.of(risky, clean));
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/address")
+                .param("address", "0x123,0x456,0x123")
+                .param("chain_id", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(1))
+                .andExpect(jsonPath("$.result.0x123.money_laundering").value("1"))
+                .andExpect(jsonPath("$.result.0x456.money_laundering").value("0"));
+        verify(riskCheckService, times(1)).checkRisk(anyList());
+    }
+    
+    @Test
+    public void testCheckAddressesBatch_WhenChainHasNullAddresses_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/address/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addresses\":{\"1\":null}}"))
+                .andExpect(status().isBadRequest());
+        verify(riskCheckService, times(0)).checkRisk(anyList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.wanel.mocking.kyx.server.app.controller.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+public class ReactiveGoPlusControllerTest {
+
+    private final GoPlusController goPlusController = mock(GoPlusController.class);
+    private Scheduler scriptScheduler;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void setUp() {
+        scriptScheduler = Schedulers.newBoundedElastic(2, 100, "kyx-script");
+        webTestClient = WebTestClient.bindToController(new ReactiveGoPlusController(goPlusController, scriptScheduler)).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scriptScheduler.dispose();
+    }
+
+    @Test
+    public void testCheckAddress_WhenRequested_ShouldEvaluateOnScriptScheduler() {
+        // Arrange
+        AtomicReference<String> evaluatingThread = new AtomicReference<>();
+        when(goPlusController.checkAddress("0x123")).thenAnswer(invocation -> {
+            evaluatingThread.set(Thread.currentThread().getName());
+            return ResponseEntity.ok(GoPlusRiskEoaAddressResponse.builder().code(1).message("ok").build());
+        });
+
+        // Act & Assert
+        webTestClient.get().uri("/address/0x123")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(1)
+                .jsonPath("$.message").isEqualTo("ok");
+        assertTrue(evaluatingThread.get().startsWith("kyx-script"), evaluatingThread.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.wanel.mocking.kyx.server.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop GoPlus address checks from many concurrent HTTP/1.1 clients against a running server,
+ * to compare platform against virtual request threads. Not a unit test; run it by hand, once per mode:
+ * <pre>
+ * java -jar target/mock-kyx-api-server-*.jar --logging.level.com.wanel.mocking.kyx.server=WARN \
+ *     --spring.threads.virtual.enabled=false   (then true, on JDK 21+)
+ * mvn test-compile
+ * java -cp target/test-classes com.wanel.mocking.kyx.server.benchmark.ConcurrencyBenchmark http://localhost:8080 1000 50
+ * </pre>
+ * Arguments: base url, concurrent clients, requests per client.
+ */
+public class ConcurrencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int requestsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, concurrency / 10));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(httpExecutor)
+                .build();
+
+        List<List<Long>> latencies = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            int client = c;
+            futures.add(clients.submit(() -> {
+                List<Long> clientLatencies = new ArrayList<>(requestsPerClient);
+                for (int r = 0; r < requestsPerClient; r++) {
+                    String address = "0x" + Integer.toHexString(client * requestsPerClient + r);
+                    long requestStart = System.nanoTime();
+                    HttpResponse<String> response = httpClient.send(
+                            HttpRequest.newBuilder(URI.create(baseUrl + "/address/" + address)).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    clientLatencies.add(System.nanoTime() - requestStart);
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Status " + response.statusCode() + " for " + address);
+                    }
+                }
+                latencies.add(clientLatencies);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        clients.shutdown();
+        httpExecutor.shutdown();
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        System.out.printf("%d clients: %d requests in %d ms (%.0f req/s)%n",
+                concurrency, all.size(), elapsedMs, all.size() * 1000.0 / elapsedMs);
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), all.get(all.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size()))) / 1e6;
+    }
+}
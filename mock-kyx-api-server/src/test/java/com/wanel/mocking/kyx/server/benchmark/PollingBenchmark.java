@@ -0,0 +1,140 @@
+package com.wanel.mocking.kyx.server.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Polling-heavy Chainalysis KYT flow (register, poll status until ready, get alerts) driven
+ * over HTTP/1.1 or HTTP/2 against a running server, reporting latency and TCP connections.
+ * Not a unit test; run it by hand against a server with a short readiness delay, e.g.
+ * <pre>
+ * java -jar target/mock-kyx-api-server-*.jar --logging.level.com.wanel.mocking.kyx.server=WARN \
+ *     --kyx.simulation.readiness.default.type=fixed --kyx.simulation.readiness.default.fixed-ms=500
+ * mvn test-compile
+ * java -cp target/test-classes com.wanel.mocking.kyx.server.benchmark.PollingBenchmark http://localhost:8080 h2c 200 20
+ * </pre>
+ * Arguments: base url, protocol (http1 or h2c), concurrent flows, flows per client thread.
+ */
+public class PollingBenchmark {
+
+    private static final Pattern EXTERNAL_ID = Pattern.compile("\"externalId\":\"([^\"]+)\"");
+    private static final long POLL_INTERVAL_MS = 100;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        boolean http2 = args.length > 1 && "h2c".equals(args[1]);
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int flowsPerClient = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, concurrency / 10));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        // one request first, so an h2c upgrade settles on a single connection
+        send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/address/0x2")).build(), new ArrayList<>());
+
+        List<List<Long>> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger maxConnections = new AtomicInteger();
+        int port = URI.create(baseUrl).getPort();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            int client = c;
+            futures.add(clients.submit(() -> {
+                List<Long> clientLatencies = new ArrayList<>();
+                for (int f = 0; f < flowsPerClient; f++) {
+                    runFlow(httpClient, baseUrl, "bench-" + client, clientLatencies);
+                    maxConnections.accumulateAndGet(establishedConnections(port), Math::max);
+                }
+                latencies.add(clientLatencies);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        clients.shutdown();
+        httpExecutor.shutdown();
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        System.out.printf("%s: %d flows, %d requests in %d ms (%.0f req/s)%n", http2 ? "HTTP/2 (h2c)" : "HTTP/1.1",
+                concurrency * flowsPerClient, all.size(), elapsedMs, all.size() * 1000.0 / elapsedMs);
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), all.get(all.size() - 1) / 1e6);
+        System.out.printf("max established TCP connections to port %d: %d%n", port, maxConnections.get());
+    }
+
+    private static void runFlow(HttpClient httpClient, String baseUrl, String userId, List<Long> latencies) throws Exception {
+        String body = "{\"fromAddress\":\"0xabc\",\"toAddress\":\"0x2def\",\"tokenName\":\"ETH\",\"tokenAmount\":1.0,\"chainId\":1}";
+        String registration = send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/api/kyt/v2/users/" + userId + "/transfers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), latencies);
+        Matcher matcher = EXTERNAL_ID.matcher(registration);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No externalId in " + registration);
+        }
+        String externalId = matcher.group(1);
+
+        HttpRequest status = HttpRequest.newBuilder(URI.create(baseUrl + "/api/kyt/v2/transfers/" + externalId)).build();
+        while (send(httpClient, status, latencies).contains("\"updatedAt\":null")) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/api/kyt/v2/transfers/" + externalId + "/alerts")).build(), latencies);
+    }
+
+    private static String send(HttpClient httpClient, HttpRequest request, List<Long> latencies) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        latencies.add(System.nanoTime() - start);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Status " + response.statusCode() + " for " + request.uri());
+        }
+        return response.body();
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size()))) / 1e6;
+    }
+
+    /**
+     * Client-side established TCP connections to the port, from /proc/net (Linux only, else 0)
+     */
+    private static int establishedConnections(int port) {
+        String remotePort = String.format(":%04X ", port);
+        int count = 0;
+        for (String table : List.of("/proc/net/tcp", "/proc/net/tcp6")) {
+            try {
+                for (String line : Files.readAllLines(Path.of(table))) {
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length > 3 && (fields[2] + " ").endsWith(remotePort) && "01".equals(fields[3])) {
+                        count++;
+                    }
+                }
+            } catch (Exception e) {
+                // not on Linux
+            }
+        }
+        return count;
+    }
+}
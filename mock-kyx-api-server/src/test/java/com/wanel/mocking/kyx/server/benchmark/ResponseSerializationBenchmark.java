@@ -0,0 +1,92 @@
+package com.wanel.mocking.kyx.server.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanel.mocking.kyx.server.app.config.AppConfig;
+import com.wanel.mocking.kyx.server.app.controller.GoPlusController;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+
+/**
+ * Serialization cost of the hot responses with Jackson's reflective bean serializers
+ * and with the hand-written ones of ResponseSerializerModule. Not a unit test; run it by hand:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ResponseSerializationBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"kya", "kyt", "alerts", "goplus"})
+    private String response;
+
+    private Object body;
+    private ObjectMapper reflective;
+    private ObjectMapper handWritten;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+    @Setup
+    public void setUp() {
+        reflective = AppConfig.configure(new ObjectMapper());
+        handWritten = AppConfig.configure(new ObjectMapper()).registerModule(new ResponseSerializerModule());
+        switch (response) {
+            case "kya":
+                body = new CAKyaRegisterResponse("2026-01-01T00:00:00Z", "ETH", "ethereum",
+                        "0x1f9840a85d5af5bf1d1762f925bdaddc4201f984", "1b4e28ba-2fa1-11d2-883f-0016d3cca427",
+                        new BigDecimal("1000"), BigDecimal.ONE, "6f1c3a2e-8b0d-4c55-9a7e-2d1f0b9e4c11");
+                break;
+            case "kyt":
+                body = CAKytRegisterResponse.builder().asset("ETH").network("ethereum")
+                        .transferReference("0x5c504ed432cb51138bcf09aa5e8a410dd4a1e204ef84bfed1be16dfba1b22060:0x1f98")
+                        .tx("0x5c504ed432cb51138bcf09aa5e8a410dd4a1e204ef84bfed1be16dfba1b22060")
+                        .usdAmount(new BigDecimal("5000")).assetAmount(new BigDecimal("5"))
+                        .timestamp("2026-01-01T00:00:00Z").outputAddress("0x1f9840a85d5af5bf1d1762f925bdaddc4201f984")
+                        .externalId("6f1c3a2e-8b0d-4c55-9a7e-2d1f0b9e4c11").build();
+                break;
+            case "alerts":
+                body = new CAKyXAlertResponse(CAKyXAlertResponse.alerts(RiskCategory.MONEY_LAUNDERING.bit(),
+                        "6f1c3a2e-8b0d-4c55-9a7e-2d1f0b9e4c11"));
+                break;
+            default:
+                body = GoPlusController.okResponse(GoPlusController.noRiskResult());
+        }
+    }
+
+    @Benchmark
+    public int reflective() throws IOException {
+        out.reset();
+        reflective.writeValue(out, body);
+        return out.size();
+    }
+
+    @Benchmark
+    public int handWritten() throws IOException {
+        out.reset();
+        handWritten.writeValue(out, body);
+        return out.size();
+    }
+}
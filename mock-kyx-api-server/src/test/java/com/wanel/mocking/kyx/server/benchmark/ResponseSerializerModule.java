@@ -0,0 +1,193 @@
+package com.wanel.mocking.kyx.server.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+
+/**
+ * Hand-written serializers for the responses every request returns. They write the same JSON as
+ * the bean serializers Jackson would build, fields in declaration order and nulls included, but
+ * without reflection and with field names encoded once.
+ * Only compared against them by ResponseSerializationBenchmark: they showed no reliable gain,
+ * so the server keeps the bean serializers, which Jackson already caches once built.
+ */
+public class ResponseSerializerModule extends SimpleModule {
+
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString ASSET = new SerializedString("asset");
+    private static final SerializedString NETWORK = new SerializedString("network");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString ATTEMPT_IDENTIFIER = new SerializedString("attemptIdentifier");
+    private static final SerializedString USD_AMOUNT = new SerializedString("usdAmount");
+    private static final SerializedString ASSET_AMOUNT = new SerializedString("assetAmount");
+    private static final SerializedString EXTERNAL_ID = new SerializedString("externalId");
+    private static final SerializedString TRANSFER_REFERENCE = new SerializedString("transferReference");
+    private static final SerializedString TX = new SerializedString("tx");
+    private static final SerializedString IDX = new SerializedString("idx");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString OUTPUT_ADDRESS = new SerializedString("outputAddress");
+    private static final SerializedString ALERTS = new SerializedString("alerts");
+    private static final SerializedString ALERT_LEVEL = new SerializedString("alertLevel");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString SERVICE = new SerializedString("service");
+    private static final SerializedString ALERT_AMOUNT = new SerializedString("alertAmount");
+    private static final SerializedString EXPOSURE_TYPE = new SerializedString("exposureType");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString IN_RISK = new SerializedString("inRisk");
+
+    public ResponseSerializerModule() {
+        super("ResponseSerializerModule");
+        addSerializer(CAKyaRegisterResponse.class, new KyaRegisterSerializer());
+        addSerializer(CAKytRegisterResponse.class, new KytRegisterSerializer());
+        addSerializer(CAKyXAlertResponse.class, new AlertSerializer());
+        addSerializer(GoPlusRiskEoaAddressResponse.class, new GoPlusSerializer());
+    }
+
+    static class KyaRegisterSerializer extends StdSerializer<CAKyaRegisterResponse> {
+
+        KyaRegisterSerializer() {
+            super(CAKyaRegisterResponse.class);
+        }
+
+        @Override
+        public void serialize(CAKyaRegisterResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(UPDATED_AT);
+            generator.writeString(value.getUpdatedAt());
+            generator.writeFieldName(ASSET);
+            generator.writeString(value.getAsset());
+            generator.writeFieldName(NETWORK);
+            generator.writeString(value.getNetwork());
+            generator.writeFieldName(ADDRESS);
+            generator.writeString(value.getAddress());
+            generator.writeFieldName(ATTEMPT_IDENTIFIER);
+            generator.writeString(value.getAttemptIdentifier());
+            generator.writeFieldName(USD_AMOUNT);
+            generator.writeNumber(value.getUsdAmount());
+            generator.writeFieldName(ASSET_AMOUNT);
+            generator.writeNumber(value.getAssetAmount());
+            generator.writeFieldName(EXTERNAL_ID);
+            generator.writeString(value.getExternalId());
+            generator.writeEndObject();
+        }
+    }
+
+    static class KytRegisterSerializer extends StdSerializer<CAKytRegisterResponse> {
+
+        KytRegisterSerializer() {
+            super(CAKytRegisterResponse.class);
+        }
+
+        @Override
+        public void serialize(CAKytRegisterResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(UPDATED_AT);
+            generator.writeString(value.getUpdatedAt());
+            generator.writeFieldName(ASSET);
+            generator.writeString(value.getAsset());
+            generator.writeFieldName(NETWORK);
+            generator.writeString(value.getNetwork());
+            generator.writeFieldName(TRANSFER_REFERENCE);
+            generator.writeString(value.getTransferReference());
+            generator.writeFieldName(TX);
+            generator.writeString(value.getTx());
+            generator.writeFieldName(IDX);
+            generator.writeNumber(value.getIdx());
+            generator.writeFieldName(USD_AMOUNT);
+            generator.writeNumber(value.getUsdAmount());
+            generator.writeFieldName(ASSET_AMOUNT);
+            generator.writeNumber(value.getAssetAmount());
+            generator.writeFieldName(TIMESTAMP);
+            generator.writeString(value.getTimestamp());
+            generator.writeFieldName(OUTPUT_ADDRESS);
+            generator.writeString(value.getOutputAddress());
+            generator.writeFieldName(EXTERNAL_ID);
+            generator.writeString(value.getExternalId());
+            generator.writeEndObject();
+        }
+    }
+
+    static class AlertSerializer extends StdSerializer<CAKyXAlertResponse> {
+
+        AlertSerializer() {
+            super(CAKyXAlertResponse.class);
+        }
+
+        @Override
+        public void serialize(CAKyXAlertResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(ALERTS);
+            List<CAKyXAlertResponse.Alert> alerts = value.getAlerts();
+            if (alerts == null) {
+                generator.writeNull();
+            } else {
+                generator.writeStartArray(alerts, alerts.size());
+                for (int i = 0; i < alerts.size(); i++) {
+                    writeAlert(alerts.get(i), generator);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+
+        private static void writeAlert(CAKyXAlertResponse.Alert alert, JsonGenerator generator) throws IOException {
+            if (alert == null) {
+                generator.writeNull();
+                return;
+            }
+            generator.writeStartObject(alert);
+            generator.writeFieldName(ALERT_LEVEL);
+            generator.writeString(alert.getAlertLevel());
+            generator.writeFieldName(CATEGORY);
+            generator.writeString(alert.getCategory());
+            generator.writeFieldName(SERVICE);
+            generator.writeString(alert.getService());
+            generator.writeFieldName(EXTERNAL_ID);
+            generator.writeString(alert.getExternalId());
+            generator.writeFieldName(ALERT_AMOUNT);
+            generator.writeNumber(alert.getAlertAmount());
+            generator.writeFieldName(EXPOSURE_TYPE);
+            generator.writeString(alert.getExposureType());
+            generator.writeEndObject();
+        }
+    }
+
+    static class GoPlusSerializer extends StdSerializer<GoPlusRiskEoaAddressResponse> {
+
+        private static final GoPlusRiskEoaAddressResponse.Result.Serializer RESULT_SERIALIZER =
+                new GoPlusRiskEoaAddressResponse.Result.Serializer();
+
+        GoPlusSerializer() {
+            super(GoPlusRiskEoaAddressResponse.class);
+        }
+
+        @Override
+        public void serialize(GoPlusRiskEoaAddressResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(CODE);
+            generator.writeNumber(value.getCode());
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(value.getMessage());
+            generator.writeFieldName(RESULT);
+            if (value.getResult() == null) {
+                generator.writeNull();
+            } else {
+                RESULT_SERIALIZER.serialize(value.getResult(), generator, provider);
+            }
+            generator.writeFieldName(IN_RISK);
+            generator.writeBoolean(value.isInRisk());
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.wanel.mocking.kyx.server.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyXAlertResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKytRegisterResponse;
+import com.wanel.mocking.kyx.server.bean.goplus.GoPlusRiskEoaAddressResponse;
+
+public class ResponseSerializerModuleTest {
+
+    private static final List<Object> RESPONSES = List.of(
+            new CAKyaRegisterResponse(),
+            new CAKyaRegisterResponse("2026-01-01T00:00:00Z", "ETH", "ethereum", "0xabc", "a-1",
+                    new BigDecimal("1000.50"), BigDecimal.ONE, "e-1"),
+            new CAKytRegisterResponse(),
+            new CAKytRegisterResponse(null, "ETH", "ethereum", "tx:0xdef", "0xdef", BigInteger.TWO,
+                    new BigDecimal("1E+3"), BigDecimal.TEN, "2026-01-01T00:00:00Z", "0x\"quoted\"", "e-2"),
+            new CAKyXAlertResponse(),
+            new CAKyXAlertResponse(null),
+            new CAKyXAlertResponse(CAKyXAlertResponse.alerts(RiskCategory.MIXER.bit() | RiskCategory.SANCTIONED.bit(), "e-3")),
+            new GoPlusRiskEoaAddressResponse(),
+            GoPlusRiskEoaAddressResponse.builder().code(1).message("ok")
+                    .result(GoPlusRiskEoaAddressResponse.Result.builder()
+                            .categories(RiskCategory.CYBERCRIME.bit()).data_source("Mock KYX Server").build())
+                    .build());
+
+    @Test
+    public void testSerialize_WhenJson_ShouldMatchBeanSerialization() throws Exception {
+        // Arrange
+        ObjectMapper reflective = new ObjectMapper();
+        ObjectMapper handWritten = new ObjectMapper().registerModule(new ResponseSerializerModule());
+
+        for (Object response : RESPONSES) {
+            // Act
+            String json = handWritten.writeValueAsString(response);
+
+            // Assert
+            assertEquals(reflective.writeValueAsString(response), json);
+        }
+    }
+
+    @Test
+    public void testSerialize_WhenSmile_ShouldMatchBeanSerialization() throws Exception {
+        // Arrange
+        ObjectMapper reflective = new ObjectMapper(new SmileFactory());
+        ObjectMapper handWritten = new ObjectMapper(new SmileFactory()).registerModule(new ResponseSerializerModule());
+
+        for (Object response : RESPONSES) {
+            // Act
+            byte[] smile = handWritten.writeValueAsBytes(response);
+
+            // Assert
+            assertArrayEquals(reflective.writeValueAsBytes(response), smile);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.wanel.mocking.kyx.server.core.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    public void testOwnerOf_WhenSameNodesInAnyOrder_ShouldAgreeOnOwner() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)));
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            String key = UUID.randomUUID().toString();
+            assertEquals(ring.ownerOf(key), reordered.ownerOf(key));
+        }
+    }
+
+    @Test
+    public void testOwnerOf_WhenManyKeys_ShouldSpreadEvenly() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(NODES);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 30000; i++) {
+            counts.merge(ring.ownerOf(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 7000 && count < 13000, "unbalanced ring: " + counts));
+    }
+}
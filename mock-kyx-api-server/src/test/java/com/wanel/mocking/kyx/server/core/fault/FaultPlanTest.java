@@ -0,0 +1,72 @@
+package com.wanel.mocking.kyx.server.core.fault;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+
+public class FaultPlanTest {
+
+    @Test
+    public void testDecide_WhenRateSet_ShouldFailExactlyThatShareOfRequests() {
+        // Arrange
+        FaultPlan plan = FaultPlan.compile(List.of(rule("/address/{address}", "", 0.25, "status")), 42L);
+
+        // Act
+        int failed = 0;
+        for (int i = 0; i < FaultPlan.DECISIONS * 2; i++) {
+            if (plan.decide("/address/{address}", null) != null) {
+                failed++;
+            }
+        }
+
+        // Assert
+        assertEquals(FaultPlan.DECISIONS / 2, failed);
+        assertNull(plan.decide("/address", null));
+    }
+
+    @Test
+    public void testDecide_WhenRulesOverlap_ShouldApplyFirstMatchingRule() {
+        // Arrange
+        FaultPlan plan = FaultPlan.compile(List.of(
+                rule("", "u1", 1.0, "reset"),
+                rule("/api/kyt/v2/users/{userId}/transfers", "", 1.0, "truncated"),
+                rule("", "", 0.0, "stall")), null);
+
+        // Act
+        Fault userFault = plan.decide("/api/kyt/v2/users/{userId}/transfers", "u1");
+        Fault routeFault = plan.decide("/api/kyt/v2/users/{userId}/transfers", "u2");
+        Fault otherRoute = plan.decide("/api/kyt/v2/users/{userId}/withdrawal-attempts", "u2");
+
+        // Assert
+        assertEquals(FaultType.RESET, userFault.type());
+        assertEquals(FaultType.TRUNCATED, routeFault.type());
+        assertEquals(routeFault.contentLength() / 2, routeFault.body().length);
+        assertNull(otherRoute);
+    }
+
+    @Test
+    public void testCompile_WhenNoRuleCanFire_ShouldReturnEmptyPlan() {
+        // Act
+        FaultPlan plan = FaultPlan.compile(List.of(rule("", "", 0.0, "status")), null);
+
+        // Assert
+        assertSame(FaultPlan.EMPTY, plan);
+        assertThrows(IllegalArgumentException.class, () -> FaultPlan.compile(List.of(rule("", "", 1.0, "explode")), null));
+    }
+
+    private static KyxConfiguration.FaultRule rule(String route, String userId, double rate, String type) {
+        KyxConfiguration.FaultRule rule = new KyxConfiguration.FaultRule();
+        rule.setRoute(route);
+        rule.setUserId(userId);
+        rule.setRate(rate);
+        rule.setType(type);
+        return rule;
+    }
+}
@@ -0,0 +1,47 @@
+package com.wanel.mocking.kyx.server.core.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketLimiterTest {
+
+    @Test
+    public void testTryAcquire_WhenBurstSpent_ShouldRefuseUntilNextToken() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 3, 4);
+        long now = 5_000_000_000L;
+
+        // Act
+        long first = limiter.tryAcquire("user-1", now);
+        long second = limiter.tryAcquire("user-1", now);
+        long third = limiter.tryAcquire("user-1", now);
+        long refused = limiter.tryAcquire("user-1", now);
+        long otherKey = limiter.tryAcquire("user-2", now);
+        long afterWait = limiter.tryAcquire("user-1", now + refused);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(100_000_000L, refused);
+        assertEquals(0, otherKey);
+        assertEquals(0, afterWait);
+    }
+
+    @Test
+    public void testRemoveIdle_WhenBucketsRefilled_ShouldDropOnlyThose() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 2, 4);
+        long now = -3_000_000_000L;
+        limiter.tryAcquire("idle", now);
+        limiter.tryAcquire("busy", now + 1_500_000_000L);
+
+        // Act
+        int removed = limiter.removeIdle(now + 1_500_000_000L);
+
+        // Assert
+        assertEquals(1, removed);
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.wanel.mocking.kyx.server.core.service.impl.HmacExternalIdCodec;
+
+public class ExternalIdCodecTest {
+
+    private final ExternalIdCodec codec = new HmacExternalIdCodec(true, "shared-secret");
+
+    @Test
+    public void testDecode_WhenTokenFromOtherInstanceWithSameSecret_ShouldReturnParams() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestType", "kyt");
+        params.put("fromAddress", "0xabc");
+        params.put("toAddress", "0xdef");
+        params.put("tokenName", "ETH");
+        params.put("tokenAmount", 12.5);
+        params.put("chainId", 56);
+        params.put("txHash", "0x" + "f".repeat(64));
+        params.put("createdAt", now);
+        params.put("validTimestamp", now + 60_000);
+        params.put("expiresAt", now + 3_600_000);
+
+        // Act
+        String externalId = codec.encode(params);
+        Map<String, Object> decoded = new HmacExternalIdCodec(true, "shared-secret").decode(externalId);
+
+        // Assert
+        assertNotNull(decoded);
+        assertFalse(externalId.contains("="));
+        assertEquals("0xabc", decoded.get("fromAddress"));
+        assertEquals("0xdef", decoded.get("toAddress"));
+        assertEquals(12.5, decoded.get("tokenAmount"));
+        assertEquals(56, decoded.get("chainId"));
+        assertEquals(params.get("txHash"), decoded.get("txHash"));
+        assertEquals(now + 60_000, decoded.get("validTimestamp"));
+        assertNull(decoded.get("updatedAt"));
+    }
+
+    @Test
+    public void testDecode_WhenTokenIsForgedOrExpired_ShouldReturnNull() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestType", "kya");
+        params.put("targetAddress", "0x123");
+        params.put("chainId", 1);
+        params.put("createdAt", now);
+        params.put("expiresAt", now + 3_600_000);
+        String externalId = codec.encode(params);
+        params.put("expiresAt", now - 1);
+        String expired = codec.encode(params);
+        char[] tampered = externalId.toCharArray();
+        tampered[8] = tampered[8] == 'A' ? 'B' : 'A';
+
+        // Act & Assert
+        assertNotNull(codec.decode(externalId));
+        assertNull(new HmacExternalIdCodec(true, "other-secret").decode(externalId));
+        assertNull(codec.decode(new String(tampered)));
+        assertNull(codec.decode(expired));
+        assertNull(codec.decode("32b63d61-7495-494c-805a-a151906dc176"));
+    }
+}
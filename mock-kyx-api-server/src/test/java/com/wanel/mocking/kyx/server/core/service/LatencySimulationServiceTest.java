@@ -0,0 +1,127 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.service.impl.LatencySimulationServiceImpl;
+import com.wanel.mocking.kyx.server.core.simulation.LatencySample;
+
+public class LatencySimulationServiceTest {
+
+    private KyxConfiguration kyxConfiguration;
+
+    @BeforeEach
+    public void setUp() {
+        kyxConfiguration = new KyxConfiguration();
+    }
+
+    @Test
+    public void testSampleReadiness_WhenSeeded_ShouldReplaySameDelays() {
+        // Arrange
+        kyxConfiguration.getSimulation().setSeed(42L);
+        LatencySimulationService first = new LatencySimulationServiceImpl(kyxConfiguration);
+        LatencySimulationService second = new LatencySimulationServiceImpl(kyxConfiguration);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            LatencySample a = first.sampleReadiness("kya");
+            LatencySample b = second.sampleReadiness("kya");
+            assertEquals(a, b);
+            assertEquals(i, a.sequence());
+        }
+    }
+
+    @Test
+    public void testSampleReadiness_WhenLogNormalTailIsHuge_ShouldCapAtMaxDelay() {
+        // Arrange
+        KyxConfiguration.LatencyProfile profile = new KyxConfiguration.LatencyProfile();
+        profile.setType("log-normal");
+        profile.setMu(1000);
+        profile.setSigma(0.1);
+        kyxConfiguration.getSimulation().getReadiness().put("kya", profile);
+        kyxConfiguration.getSimulation().setMaxDelayMs(60_000);
+        LatencySimulationService service = new LatencySimulationServiceImpl(kyxConfiguration);
+
+        // Act
+        long delayMs = service.sampleReadiness("kya").delayMs();
+
+        // Assert
+        assertEquals(60_000, delayMs);
+    }
+
+    @Test
+    public void testOnEnvironmentChange_WhenOtherKeysChange_ShouldKeepSequences() {
+        // Arrange
+        LatencySimulationServiceImpl service = new LatencySimulationServiceImpl(kyxConfiguration);
+        service.sampleReadiness("kya");
+
+        // Act
+        service.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("kyx.rate-limit.user.requests-per-second")));
+        long afterOtherChange = service.sampleReadiness("kya").sequence();
+        service.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("kyx.simulation.seed")));
+        long afterSimulationChange = service.sampleReadiness("kya").sequence();
+
+        // Assert
+        assertEquals(1, afterOtherChange);
+        assertEquals(0, afterSimulationChange);
+    }
+
+    @Test
+    public void testSampleReadiness_WhenDefaultProfile_ShouldStayInWholeSecondsUpToTen() {
+        // Arrange
+        LatencySimulationService service = new LatencySimulationServiceImpl(kyxConfiguration);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            long delayMs = service.sampleReadiness("kyt").delayMs();
+            assertTrue(delayMs >= 0 && delayMs <= 10000);
+            assertEquals(0, delayMs % 1000);
+        }
+    }
+
+    @Test
+    public void testSampleReadiness_WhenHistogramProfile_ShouldOnlyHitNonEmptyBuckets() {
+        // Arrange
+        KyxConfiguration.LatencyProfile profile = new KyxConfiguration.LatencyProfile();
+        profile.setType("histogram");
+        profile.setBucketUpperMs(List.of(100L, 200L, 300L));
+        profile.setBucketCounts(List.of(0L, 5L, 0L));
+        kyxConfiguration.getSimulation().getReadiness().put("kya", profile);
+        LatencySimulationService service = new LatencySimulationServiceImpl(kyxConfiguration);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            long delayMs = service.sampleReadiness("kya").delayMs();
+            assertTrue(delayMs >= 100 && delayMs <= 200, "unexpected delay " + delayMs);
+        }
+    }
+
+    @Test
+    public void testSampleResponse_WhenOnlySomeRoutesProfiled_ShouldDelayOnlyThose() {
+        // Arrange
+        KyxConfiguration.LatencyProfile profile = new KyxConfiguration.LatencyProfile();
+        profile.setType("fixed");
+        profile.setFixedMs(250);
+        kyxConfiguration.getSimulation().getResponse().put("/address/{address}", profile);
+        LatencySimulationService service = new LatencySimulationServiceImpl(kyxConfiguration);
+
+        // Act
+        LatencySample profiled = service.sampleResponse("/address/{address}");
+        LatencySample unprofiled = service.sampleResponse("/address/batch");
+
+        // Assert
+        assertEquals(250, profiled.delayMs());
+        assertEquals("fixed(250ms)", profiled.profile());
+        assertNull(unprofiled);
+        assertNull(new LatencySimulationServiceImpl(new KyxConfiguration()).sampleResponse("/address/{address}"));
+    }
+}
@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
 import com.wanel.mocking.kyx.server.app.config.KyxConfiguration.Python;
+import com.wanel.mocking.kyx.server.bean.RiskCategory;
 import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
 import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
 import com.wanel.mocking.kyx.server.core.service.impl.RiskCheckServiceImpl;
@@ -93,4 +95,22 @@ public class RiskCheckServiceTest {
         assertFalse(result.isInRisk());
         assertEquals("", result.getRiskDetail());
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void testCheckRisk_WhenScriptReturnsCategories_ShouldSetCategoryBits() {
+        // Arrange
+        Map<String, Object> pythonResult = new HashMap<>();
+        pythonResult.put("inRisk", true);
+        pythonResult.put("riskDetail", "");
+        pythonResult.put("categories", List.of("mixer", "Sanctioned", "unknown"));
+        
+        when(pythonScriptExecutor.executeFunction(eq("kyxCheck"), any())).thenReturn(pythonResult);
+        
+        // Act
+        RiskCheckResult result = riskCheckService.checkRisk(Map.of("targetAddress", "0x1"));
+        
+        // Assert
+        assertTrue(result.isInRisk());
+        assertEquals(RiskCategory.MIXER.bit() | RiskCategory.SANCTIONED.bit(), result.getCategories());
+    }
+}
@@ -0,0 +1,135 @@
+package com.wanel.mocking.kyx.server.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.app.error.InvalidWebhookUrlException;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+import com.wanel.mocking.kyx.server.core.service.impl.TimerServiceImpl;
+import com.wanel.mocking.kyx.server.core.service.impl.WebhookServiceImpl;
+
+public class WebhookServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LinkedBlockingQueue<List<CARegistrationEvent>> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private RegistrationEventService.EventSink sink;
+    private HttpServer receiver;
+    private TimerServiceImpl timerService;
+    private WebhookService webhookService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            List<CARegistrationEvent> batch = objectMapper.readValue(exchange.getRequestBody(),
+                    new TypeReference<List<CARegistrationEvent>>() {});
+            boolean fail = failuresLeft.getAndDecrement() > 0;
+            if (!fail) {
+                received.add(batch);
+            }
+            exchange.sendResponseHeaders(fail ? 500 : 204, -1);
+            exchange.close();
+        });
+        receiver.start();
+
+        KyxConfiguration configuration = new KyxConfiguration();
+        configuration.getWebhook().setBatchSize(3);
+        configuration.getWebhook().setLingerMs(100);
+        configuration.getWebhook().setRetryBackoffMs(List.of(50L, 50L));
+        timerService = new TimerServiceImpl(10, 64);
+        RegistrationEventService eventService = new RegistrationEventService() {
+            @Override
+            public void registrationReady(String externalId, Map<String, Object> params) {
+            }
+
+            @Override
+            public Subscription subscribe(String userId, String externalId, EventSink eventSink) {
+                sink = eventSink;
+                return eventSink::close;
+            }
+        };
+        webhookService = new WebhookServiceImpl(eventService, timerService, objectMapper, configuration);
+        webhookService.register("http://127.0.0.1:" + receiver.getAddress().getPort() + "/hook", "user-1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        receiver.stop(0);
+        timerService.shutdown();
+    }
+
+    @Test
+    public void testSend_WhenMoreAlertsThanBatchSize_ShouldPostFullBatchesThenLingeringRest() throws Exception {
+        // Arrange & Act
+        for (int i = 0; i < 4; i++) {
+            sink.send(alert("id-" + i));
+        }
+        sink.send(CARegistrationEvent.builder().type(CARegistrationEvent.READY).externalId("ready").build());
+
+        // Assert
+        List<CARegistrationEvent> first = received.poll(5, TimeUnit.SECONDS);
+        List<CARegistrationEvent> second = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertNotNull(second);
+        // the lingering batch may overtake the full one on the wire
+        List<CARegistrationEvent> full = first.size() == 3 ? first : second;
+        List<CARegistrationEvent> rest = first.size() == 3 ? second : first;
+        assertEquals(3, full.size());
+        assertEquals(1, rest.size());
+        assertEquals("id-3", rest.get(0).getExternalId());
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSend_WhenReceiverFailsTwice_ShouldRetryUntilDelivered() throws Exception {
+        // Arrange
+        failuresLeft.set(2);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            sink.send(alert("id-" + i));
+        }
+
+        // Assert
+        List<CARegistrationEvent> batch = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertEquals(3, batch.size());
+        assertEquals(-1, failuresLeft.get());
+    }
+
+    @Test
+    public void testRegister_WhenUrlIsNotAbsoluteHttp_ShouldRejectIt() {
+        // Act & Assert
+        assertThrows(InvalidWebhookUrlException.class, () -> webhookService.register("http://a b", "user-1"));
+        assertThrows(InvalidWebhookUrlException.class, () -> webhookService.register("example.com/hook", "user-1"));
+        assertThrows(InvalidWebhookUrlException.class, () -> webhookService.register("ftp://example.com/hook", "user-1"));
+        assertEquals(1, webhookService.list().size());
+    }
+
+    private static CARegistrationEvent alert(String externalId) {
+        return CARegistrationEvent.builder()
+                .type(CARegistrationEvent.ALERT)
+                .externalId(externalId)
+                .userId("user-1")
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+
+public class AccessLogServiceImplTest {
+
+    @Test
+    public void testRecord_WhenRouteSampledOut_ShouldOnlyWriteSampledAndErrorLines() throws Exception {
+        // Arrange
+        Path path = Files.createTempFile("kyx-access", ".log");
+        KyxConfiguration configuration = new KyxConfiguration();
+        configuration.getAccessLog().setPath(path.toString());
+        configuration.getAccessLog().getSampleRates().put("/address/{address}", 0.0);
+        AccessLogServiceImpl accessLog = new AccessLogServiceImpl(configuration);
+
+        // Act
+        accessLog.record("POST", "/api/kyt/v2/users/{userId}/transfers", 200, 1_500_000, "u\"1", null);
+        accessLog.record("GET", "/address/{address}", 200, 1_000, null, null);
+        accessLog.record("GET", "/address/{address}", 500, 2_000, null, null);
+        accessLog.shutdown();
+
+        // Assert
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\{\"ts\":\"[^\"]+\",\"method\":\"POST\",\"route\":\"/api/kyt/v2/users/\\{userId}/transfers\","
+                + "\"status\":200,\"durationUs\":1500,\"userId\":\"u\\\\\"1\"}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"route\":\"/address/{address}\",\"status\":500,\"durationUs\":2}"), lines.get(1));
+        assertEquals(0, accessLog.dropped());
+    }
+}
@@ -0,0 +1,49 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryIdempotencyIndexTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void testPutIfAbsent_WhenKeyAlreadyIndexed_ShouldReturnOriginalUntilItExpires() {
+        // Arrange
+        InMemoryIdempotencyIndex index = new InMemoryIdempotencyIndex(100, now::get);
+        index.putIfAbsent("kya:u1:a1", "first", 2_000);
+
+        // Act
+        String duplicate = index.putIfAbsent("kya:u1:a1", "second", 2_000);
+        now.set(2_000);
+        String afterExpiry = index.get("kya:u1:a1");
+        String reRegistered = index.putIfAbsent("kya:u1:a1", "third", 3_000);
+
+        // Assert
+        assertEquals("first", duplicate);
+        assertNull(afterExpiry);
+        assertNull(reRegistered);
+        assertEquals("third", index.get("kya:u1:a1"));
+    }
+
+    @Test
+    public void testPutIfAbsent_WhenIndexIsFull_ShouldEvictOldestEntries() {
+        // Arrange
+        InMemoryIdempotencyIndex index = new InMemoryIdempotencyIndex(3, now::get);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            index.putIfAbsent("key-" + i, "response-" + i, 10_000);
+        }
+
+        // Assert
+        assertEquals(3, index.size());
+        assertNull(index.get("key-0"));
+        assertNull(index.get("key-1"));
+        assertEquals("response-4", index.get("key-4"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryRegistrationStoreTest {
+
+    @Test
+    public void testPutWithinQuota_WhenUserRegistersConcurrently_ShouldNotOvershootQuota() throws Exception {
+        // Arrange
+        InMemoryRegistrationStore store = new InMemoryRegistrationStore();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            String externalId = "id-" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return store.putWithinQuota(externalId, Map.of("userId", "u1"), 10);
+            }));
+        }
+        start.countDown();
+        int stored = 0;
+        for (Future<Boolean> result : results) {
+            stored += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Assert
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(10, stored);
+        assertEquals(10, store.countOfUser("u1"));
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    public void testRemove_WhenRegistrationStored_ShouldFreeQuotaSlot() {
+        // Arrange
+        InMemoryRegistrationStore store = new InMemoryRegistrationStore();
+        store.putWithinQuota("id-1", Map.of("userId", "u1"), 1);
+
+        // Act
+        store.remove("id-1");
+        boolean stored = store.putWithinQuota("id-2", Map.of("userId", "u1"), 1);
+
+        // Assert
+        assertTrue(stored);
+        assertEquals(1, store.countOfUser("u1"));
+    }
+
+    @Test
+    public void testRemoveExpired_WhenUserHasNoRegistrationsLeft_ShouldDropItsShard() {
+        // Arrange
+        InMemoryRegistrationStore store = new InMemoryRegistrationStore();
+        store.put("id-1", Map.of("userId", "u1", "expiresAt", 1_000L));
+        store.put("id-2", Map.of("userId", "u2", "expiresAt", 3_000L));
+        store.put("id-3", Map.of("userId", "u3", "expiresAt", 3_000L));
+
+        // Act
+        int removed = store.removeExpired(2_000);
+        store.remove("id-3");
+
+        // Assert
+        assertEquals(1, removed);
+        assertEquals(Map.of("u2", 1), store.countsByUser());
+    }
+}
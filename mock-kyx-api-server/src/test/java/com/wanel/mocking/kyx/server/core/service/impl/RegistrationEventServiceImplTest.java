@@ -0,0 +1,85 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CARegistrationEvent;
+import com.wanel.mocking.kyx.server.core.service.RegistrationEventService;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+
+public class RegistrationEventServiceImplTest {
+
+    private final RiskCheckService riskCheckService = mock(RiskCheckService.class);
+    private RegistrationEventServiceImpl service;
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testRegistrationReady_WhenSendBlocksPastTimeout_ShouldCancelWatcherAndKeepDelivering() throws Exception {
+        // Arrange
+        when(riskCheckService.checkRisk(anyMap())).thenReturn(RiskCheckResult.builder().inRisk(false).build());
+        // a single writer, which the blocked send would hold forever
+        service = new RegistrationEventServiceImpl(riskCheckService, 16, 1, 32, 100, 1, false);
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch blockedClosed = new CountDownLatch(1);
+        service.subscribe(null, "blocked", new RegistrationEventService.EventSink() {
+            @Override
+            public void send(CARegistrationEvent event) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public void close() {
+                blockedClosed.countDown();
+            }
+        });
+        BlockingQueue<CARegistrationEvent> received = new LinkedBlockingQueue<>();
+        service.subscribe(null, "healthy", new RegistrationEventService.EventSink() {
+            @Override
+            public void send(CARegistrationEvent event) {
+                received.add(event);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        // Act
+        service.registrationReady("blocked", Map.of("userId", "u1"));
+        service.registrationReady("healthy", Map.of("userId", "u1"));
+        CARegistrationEvent event = received.poll(5, TimeUnit.SECONDS);
+        boolean closedWhileBlocked = blockedClosed.getCount() == 0;
+        unblock.countDown();
+
+        // Assert
+        assertNotNull(event);
+        assertEquals("healthy", event.getExternalId());
+        // the connection is only closed once the blocked send returns
+        assertFalse(closedWhileBlocked);
+        assertTrue(blockedClosed.await(5, TimeUnit.SECONDS));
+    }
+}
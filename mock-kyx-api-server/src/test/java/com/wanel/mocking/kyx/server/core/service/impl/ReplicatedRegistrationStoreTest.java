@@ -0,0 +1,155 @@
+package com.wanel.mocking.kyx.server.core.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.core.cluster.RegistrationChange;
+
+/**
+ * Two instances on localhost, each serving the replication endpoints over HTTP
+ * like ReplicationController does
+ */
+public class ReplicatedRegistrationStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Instance first = new Instance();
+    private final Instance second = new Instance();
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    public void testGet_WhenMissingLocally_ShouldForwardToOwnerOnce() throws Exception {
+        // Arrange
+        start(60000);
+        String externalId = first.store.newExternalId();
+        first.store.put(externalId, Map.of("userId", "u1", "address", "0x1"));
+
+        // Act
+        Map<String, Object> forwarded = second.store.get(externalId);
+        Map<String, Object> again = second.store.get(externalId);
+
+        // Assert
+        assertEquals("0x1", forwarded.get("address"));
+        assertEquals(forwarded, again);
+        assertEquals(1, first.forwardedReads.get());
+    }
+
+    @Test
+    public void testGet_WhenOwnerDoesNotHaveIt_ShouldNotForwardAgain() throws Exception {
+        // Arrange
+        start(60000);
+        String unknown = first.store.newExternalId();
+
+        // Act
+        Map<String, Object> forwarded = second.store.get(unknown);
+        Map<String, Object> again = second.store.getAsync(unknown).get();
+
+        // Assert
+        assertNull(forwarded);
+        assertNull(again);
+        assertEquals(1, first.forwardedReads.get());
+    }
+
+    @Test
+    public void testPut_WhenPeerRunning_ShouldReplicateToIt() throws Exception {
+        // Arrange
+        start(10);
+        String externalId = first.store.newExternalId();
+
+        // Act
+        first.store.put(externalId, Map.of("userId", "u1", "address", "0x2"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (second.store.getLocal(externalId) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertNotNull(second.store.getLocal(externalId));
+        assertEquals(1, second.store.countOfUser("u1"));
+        assertEquals(0, first.forwardedReads.get() + second.forwardedReads.get());
+    }
+
+    private void start(long lingerMs) throws IOException {
+        first.listen();
+        second.listen();
+        List<String> peers = List.of(first.url(), second.url());
+        first.start(peers, lingerMs);
+        second.start(peers, lingerMs);
+    }
+
+    private class Instance {
+        private final AtomicInteger forwardedReads = new AtomicInteger();
+        private HttpServer server;
+        private ReplicatedRegistrationStore store;
+
+        void listen() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext(ReplicatedRegistrationStore.REPLICATION_PATH, this::handle);
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void start(List<String> peers, long lingerMs) {
+            KyxConfiguration configuration = new KyxConfiguration();
+            configuration.getReplication().setEnabled(true);
+            configuration.getReplication().setSelf(url());
+            configuration.getReplication().setPeers(peers);
+            configuration.getReplication().setLingerMs(lingerMs);
+            // generous, the first exchange of a cold JVM is slow
+            configuration.getReplication().setForwardTimeoutMs(5000);
+            store = new ReplicatedRegistrationStore(new InMemoryRegistrationStore(), objectMapper, configuration);
+            store.start();
+        }
+
+        void stop() throws InterruptedException {
+            if (store != null) {
+                store.stop();
+            }
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = new byte[0];
+            int status = 204;
+            if ("POST".equals(exchange.getRequestMethod())) {
+                store.applyReplicated(objectMapper.readValue(exchange.getRequestBody(),
+                        new TypeReference<List<RegistrationChange>>() {}));
+            } else {
+                forwardedReads.incrementAndGet();
+                Map<String, Object> params = store.getLocal(path.substring(path.lastIndexOf('/') + 1));
+                status = params != null ? 200 : 404;
+                body = params != null ? objectMapper.writeValueAsBytes(params) : body;
+            }
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
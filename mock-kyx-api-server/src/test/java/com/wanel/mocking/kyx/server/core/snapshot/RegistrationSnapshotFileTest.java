@@ -0,0 +1,47 @@
+package com.wanel.mocking.kyx.server.core.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.wanel.mocking.kyx.server.core.service.RegistrationStore;
+import com.wanel.mocking.kyx.server.core.service.impl.InMemoryRegistrationStore;
+
+public class RegistrationSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteThenRead_ShouldRestoreSameParams() throws Exception {
+        // Arrange
+        RegistrationStore store = new InMemoryRegistrationStore();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestType", "kyt");
+            params.put("fromAddress", "0x" + i);
+            params.put("tokenAmount", i * 1.5);
+            params.put("chainId", 1);
+            params.put("expiresAt", 1_000_000_000_000L + i);
+            params.put("txHash", null);
+            store.put("id-" + i, params);
+        }
+        Path file = tempDir.resolve("registrations.snap");
+
+        // Act
+        int written = RegistrationSnapshotFile.write(file, store, 42L);
+        RegistrationStore restored = new InMemoryRegistrationStore();
+        long snapshotTime = RegistrationSnapshotFile.read(file, restored::restore);
+
+        // Assert
+        assertEquals(1000, written);
+        assertEquals(42L, snapshotTime);
+        assertEquals(1000, restored.size());
+        store.forEach((externalId, params) -> assertEquals(params, restored.get(externalId)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.wanel.mocking.kyx.server.core.timer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, 64);
+
+    @AfterEach
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testNewTimeout_WhenTaskThrowsError_ShouldKeepRunningLaterTasks() throws Exception {
+        // Arrange
+        CountDownLatch fired = new CountDownLatch(1);
+
+        // Act
+        timer.newTimeout(() -> {
+            throw new AssertionError("boom");
+        }, 1, TimeUnit.MILLISECONDS);
+        timer.newTimeout(fired::countDown, 20, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNewTimeout_WhenDelayIsHuge_ShouldNotFire() throws Exception {
+        // Arrange
+        CountDownLatch fired = new CountDownLatch(1);
+        CountDownLatch control = new CountDownLatch(1);
+
+        // Act
+        timer.newTimeout(fired::countDown, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        timer.newTimeout(control::countDown, 50, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(control.await(5, TimeUnit.SECONDS));
+        assertFalse(fired.await(50, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,103 @@
+package com.wanel.mocking.kyx.server.core.uds;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.wanel.mocking.kyx.server.app.config.KyxConfiguration;
+import com.wanel.mocking.kyx.server.bean.RiskCheckResult;
+import com.wanel.mocking.kyx.server.bean.TransactionCheckRequest;
+import com.wanel.mocking.kyx.server.bean.chainalysis.CAKyaRequest;
+import com.wanel.mocking.kyx.server.core.service.RiskCheckService;
+
+import jakarta.validation.Validation;
+
+public class UdsServerTest {
+
+    private Path socketPath;
+    private UdsServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        socketPath = Files.createTempDirectory("kyx-uds").resolve("kyx.sock");
+        KyxConfiguration configuration = new KyxConfiguration();
+        configuration.getUds().setPath(socketPath.toString());
+        server = new UdsServer(new PrefixRiskCheckService(), Optional.empty(),
+                Validation.buildDefaultValidatorFactory().getValidator(), configuration, false);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    public void testCheckRisk_WhenPipelinedOverSocket_ShouldAnswerInRequestOrder() throws Exception {
+        // Arrange
+        List<Map<String, Object>> paramsList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            paramsList.add(Map.of("targetAddress", (i % 3 == 0 ? "0x1" : "0x2") + i));
+        }
+
+        try (UdsKyxClient client = new UdsKyxClient(socketPath)) {
+            // Act
+            RiskCheckResult single = client.checkRisk(Map.of("targetAddress", "0x1abc"));
+            List<RiskCheckResult> pipelined = client.checkRiskPipelined(paramsList);
+            List<RiskCheckResult> batch = client.checkRiskBatch(paramsList);
+
+            // Assert
+            assertTrue(single.isInRisk());
+            assertEquals(1000, pipelined.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i % 3 == 0, pipelined.get(i).isInRisk());
+                assertEquals(pipelined.get(i), batch.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRegisterKya_WhenChainalysisIsDisabled_ShouldFailWithBadRequest() throws Exception {
+        try (UdsKyxClient client = new UdsKyxClient(socketPath)) {
+            // Act
+            UdsKyxClient.UdsKyxException e = assertThrows(UdsKyxClient.UdsKyxException.class,
+                    () -> client.registerKya("user-1", CAKyaRequest.builder().targetAddress("0x1").chainId(1).build()));
+
+            // Assert
+            assertEquals(UdsProtocol.STATUS_BAD_REQUEST, e.getStatus());
+            // the connection stays usable after an error
+            assertFalse(client.checkRisk(Map.of("targetAddress", "0x2")).isInRisk());
+        }
+    }
+
+    private static class PrefixRiskCheckService implements RiskCheckService {
+        @Override
+        public RiskCheckResult checkRisk(TransactionCheckRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RiskCheckResult checkRisk(Map<String, Object> params) {
+            boolean inRisk = String.valueOf(params.get("targetAddress")).startsWith("0x1");
+            return RiskCheckResult.builder().inRisk(inRisk).riskDetail(inRisk ? "money laundry" : "").build();
+        }
+
+        @Override
+        public List<RiskCheckResult> checkRisk(List<Map<String, Object>> paramsList) {
+            return paramsList.stream().map(this::checkRisk).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wanel.mocking.kyx.server.lean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class LeanKyxServerTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LeanKyxServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new LeanKyxServer(LeanKyxServer.binder(new String[] {
+                "--server.port=0",
+                "--kyx.simulation.readiness.default.type=fixed",
+                "--kyx.simulation.readiness.default.fixed-ms=60000"}));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testRegisterKyt_WhenRequestIsValid_ShouldBeFoundByStatusCheck() throws Exception {
+        // Arrange
+        String body = "{\"fromAddress\":\"0xabc\",\"toAddress\":\"0xdef\",\"tokenName\":\"ETH\",\"tokenAmount\":1.0,\"chainId\":1}";
+
+        // Act
+        HttpResponse<String> registration = send(HttpRequest.newBuilder(uri("/api/kyt/v2/users/u1/transfers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        String externalId = objectMapper.readTree(registration.body()).get("externalId").asText();
+        HttpResponse<String> status = send(HttpRequest.newBuilder(uri("/api/kyt/v2/transfers/" + externalId)).build());
+
+        // Assert
+        assertEquals(200, registration.statusCode());
+        assertEquals(200, status.statusCode());
+        JsonNode statusBody = objectMapper.readTree(status.body());
+        assertEquals(externalId, statusBody.get("externalId").asText());
+        assertEquals("", statusBody.get("updatedAt").asText(""));
+        assertNotNull(status.headers().firstValue("Retry-After").orElse(null));
+    }
+
+    @Test
+    public void testRegisterKyt_WhenRequestIsInvalid_ShouldReturnValidationError() throws Exception {
+        // Act
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/kyt/v2/users/u1/transfers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build());
+
+        // Assert
+        assertEquals(400, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals("Validation error", body.get("message").asText());
+        assertNotNull(body.get("errors").get("fromAddress"));
+        assertNull(body.get("errors").get("txHash"));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}